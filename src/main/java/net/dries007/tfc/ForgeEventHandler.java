@@ -141,6 +141,7 @@ import net.dries007.tfc.common.blocks.rock.AqueductBlock;
 import net.dries007.tfc.common.blocks.rock.Rock;
 import net.dries007.tfc.common.blocks.rock.RockAnvilBlock;
 import net.dries007.tfc.common.blocks.wood.TFCLecternBlock;
+import net.dries007.tfc.common.capabilities.ItemCapabilityIndex;
 import net.dries007.tfc.common.capabilities.egg.EggCapability;
 import net.dries007.tfc.common.capabilities.egg.EggHandler;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
@@ -166,7 +167,6 @@ import net.dries007.tfc.common.recipes.CollapseRecipe;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.mixin.accessor.ChunkAccessAccessor;
 import net.dries007.tfc.mixin.accessor.RecipeManagerAccessor;
-import net.dries007.tfc.network.ChunkUnwatchPacket;
 import net.dries007.tfc.network.EffectExpirePacket;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.network.PlayerDrinkPacket;
@@ -232,6 +232,7 @@ public final class ForgeEventHandler
         bus.addListener(ForgeEventHandler::onNeighborUpdate);
         bus.addListener(ForgeEventHandler::onExplosionDetonate);
         bus.addListener(ForgeEventHandler::onWorldTick);
+        bus.addListener(ForgeEventHandler::onServerTick);
         bus.addListener(ForgeEventHandler::onWorldLoad);
         bus.addListener(ForgeEventHandler::onCreateNetherPortal);
         bus.addListener(ForgeEventHandler::onFluidPlaceBlock);
@@ -415,12 +416,12 @@ public final class ForgeEventHandler
 
     public static void onChunkWatch(ChunkWatchEvent.Watch event)
     {
-        // Send an update packet to the client when watching the chunk
+        // Queue an update packet to the client when watching the chunk
         ChunkPos pos = event.getPos();
         ChunkData chunkData = ChunkData.get(event.getWorld(), pos);
         if (chunkData.getStatus() != ChunkData.Status.EMPTY)
         {
-            PacketHandler.send(PacketDistributor.PLAYER.with(event::getPlayer), chunkData.getUpdatePacket());
+            ChunkDataCache.SYNC_QUEUE.watch(event.getPlayer(), chunkData);
         }
         else
         {
@@ -431,9 +432,9 @@ public final class ForgeEventHandler
 
     public static void onChunkUnwatch(ChunkWatchEvent.UnWatch event)
     {
-        // Send an update packet to the client when un-watching the chunk
+        // Queue an update packet to the client when un-watching the chunk
         ChunkPos pos = event.getPos();
-        PacketHandler.send(PacketDistributor.PLAYER.with(event::getPlayer), new ChunkUnwatchPacket(pos));
+        ChunkDataCache.SYNC_QUEUE.unwatch(event.getPlayer(), pos);
         ChunkDataCache.WATCH_QUEUE.dequeueChunk(pos, event.getPlayer());
     }
 
@@ -581,6 +582,18 @@ public final class ForgeEventHandler
             WeatherHelpers.preAdvancedWeatherCycle(level);
             level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(cap -> cap.tick(level));
         }
+        else if (event.phase == TickEvent.Phase.END && event.world instanceof ServerLevel level)
+        {
+            level.getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(WorldTracker::sendPendingSyncs);
+        }
+    }
+
+    public static void onServerTick(TickEvent.ServerTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END)
+        {
+            ChunkDataCache.SYNC_QUEUE.flush();
+        }
     }
 
     public static void onWorldLoad(WorldEvent.Load event)
@@ -1345,6 +1358,7 @@ public final class ForgeEventHandler
         // First, reload all caches
         final RecipeManager manager = Helpers.getUnsafeRecipeManager();
         IndirectHashCollection.reloadAllCaches(manager);
+        ItemCapabilityIndex.clearAll();
 
         // Then apply post reload actions which may query the cache
         Support.updateMaximumSupportRange();
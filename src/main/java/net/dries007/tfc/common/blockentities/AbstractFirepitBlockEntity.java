@@ -27,6 +27,7 @@ import net.minecraftforge.items.IItemHandlerModifiable;
 
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.devices.FirepitBlock;
+import net.dries007.tfc.common.capabilities.ItemCapabilityIndex;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
 import net.dries007.tfc.util.Fuel;
 import net.dries007.tfc.util.Helpers;
@@ -59,7 +60,10 @@ public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiabl
     public static void serverTick(Level level, BlockPos pos, BlockState state, AbstractFirepitBlockEntity<?> firepit)
     {
         firepit.checkForLastTickSync();
-        firepit.checkForCalendarUpdate();
+        if (!firepit.checkForCalendarUpdate())
+        {
+            return;
+        }
 
         if (firepit.needsRecipeUpdate)
         {
@@ -279,7 +283,7 @@ public abstract class AbstractFirepitBlockEntity<C extends IItemHandlerModifiabl
         return switch (slot)
             {
                 case SLOT_FUEL_INPUT -> Fuel.get(stack) != null && Helpers.isItem(stack.getItem(), TFCTags.Items.FIREPIT_FUEL);
-                case FirepitBlockEntity.SLOT_ITEM_INPUT -> Helpers.mightHaveCapability(stack, HeatCapability.CAPABILITY);
+                case FirepitBlockEntity.SLOT_ITEM_INPUT -> ItemCapabilityIndex.HEAT.mightHave(stack);
                 case FirepitBlockEntity.SLOT_OUTPUT_1, FirepitBlockEntity.SLOT_OUTPUT_2 -> true;
                 default -> false;
             };
@@ -22,7 +22,6 @@ import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.item.crafting.RecipeManager;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
@@ -49,8 +48,9 @@ import net.dries007.tfc.common.capabilities.size.Weight;
 import net.dries007.tfc.common.container.BarrelContainer;
 import net.dries007.tfc.common.fluids.FluidHelpers;
 import net.dries007.tfc.common.recipes.BarrelRecipe;
+import net.dries007.tfc.common.recipes.InstantBarrelRecipe;
+import net.dries007.tfc.common.recipes.InstantFluidBarrelRecipe;
 import net.dries007.tfc.common.recipes.SealedBarrelRecipe;
-import net.dries007.tfc.common.recipes.TFCRecipeTypes;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.util.Helpers;
@@ -81,7 +81,10 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         }
 
         barrel.checkForLastTickSync();
-        barrel.checkForCalendarUpdate();
+        if (!barrel.checkForCalendarUpdate())
+        {
+            return;
+        }
 
         if (level.getGameTime() % 5 == 0)
         {
@@ -128,10 +131,8 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
             barrel.needsInstantRecipeUpdate = false;
             if (barrel.inventory.excess.isEmpty()) // Excess must be empty for instant recipes to apply
             {
-                final RecipeManager recipeManager = level.getRecipeManager();
-                Optional.<BarrelRecipe>empty() // For type erasure
-                    .or(() -> recipeManager.getRecipeFor(TFCRecipeTypes.BARREL_INSTANT.get(), barrel.inventory, level))
-                    .or(() -> recipeManager.getRecipeFor(TFCRecipeTypes.BARREL_INSTANT_FLUID.get(), barrel.inventory, level))
+                Optional.<BarrelRecipe>ofNullable(BarrelRecipe.get(InstantBarrelRecipe.CACHE, barrel.inventory, level))
+                    .or(() -> Optional.ofNullable(BarrelRecipe.get(InstantFluidBarrelRecipe.CACHE, barrel.inventory, level)))
                     .ifPresent(instantRecipe -> {
                         instantRecipe.assembleOutputs(barrel.inventory);
                         if (barrel.soundCooldownTicks == 0)
@@ -195,6 +196,19 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
                 .on(new PartialFluidHandler(inventory).insert(), vertical ? Direction.UP : facing.getOpposite())
                 .on(new PartialFluidHandler(inventory).extract(), vertical ? d -> d != Direction.UP : d -> d == facing);
         }
+
+        // Rain and pouring only change the tank. Excess items are not visible to the client, so are only included in the full update.
+        addSyncField("items", nbt -> nbt.put("inventory", inventory.inventory.serializeNBT()), nbt -> inventory.inventory.deserializeNBT(nbt.getCompound("inventory")));
+        addSyncField("tank", nbt -> nbt.put("tank", inventory.tank.writeToNBT(new CompoundTag())), nbt -> inventory.tank.readFromNBT(nbt.getCompound("tank")));
+        addSyncField("recipe", nbt -> {
+            nbt.putLong("sealedTick", sealedTick);
+            nbt.putLong("recipeTick", recipeTick);
+            saveRecipe(nbt);
+        }, nbt -> {
+            sealedTick = nbt.getLong("sealedTick");
+            recipeTick = nbt.getLong("recipeTick");
+            loadRecipe(nbt);
+        });
     }
 
     @Nullable
@@ -236,7 +250,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
     {
         return switch (slot)
             {
-                case SLOT_FLUID_CONTAINER_IN -> Helpers.mightHaveCapability(stack, Capabilities.FLUID_ITEM);
+                case SLOT_FLUID_CONTAINER_IN -> ItemCapabilityIndex.FLUID_ITEM.mightHave(stack);
                 case SLOT_ITEM -> {
                     // We only want to deny heavy/huge (aka things that can hold inventory).
                     // Other than that, barrels don't need a size restriction, and should in general be unrestricted, so we can allow any kind of recipe input (i.e. unfired large vessel)
@@ -302,6 +316,22 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         nbt.putLong("lastUpdateTick", lastUpdateTick);
         nbt.putLong("sealedTick", sealedTick);
         nbt.putLong("recipeTick", recipeTick);
+        saveRecipe(nbt);
+        super.saveAdditional(nbt);
+    }
+
+    @Override
+    public void loadAdditional(CompoundTag nbt)
+    {
+        lastUpdateTick = nbt.getLong("lastUpdateTick");
+        sealedTick = nbt.getLong("sealedTick");
+        recipeTick = nbt.getLong("recipeTick");
+        loadRecipe(nbt);
+        super.loadAdditional(nbt);
+    }
+
+    private void saveRecipe(CompoundTag nbt)
+    {
         if (recipe != null)
         {
             // Recipe saved to sync to client
@@ -311,16 +341,10 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         {
             nbt.putString("recipeName", recipeName.toString());
         }
-        super.saveAdditional(nbt);
     }
 
-    @Override
-    public void loadAdditional(CompoundTag nbt)
+    private void loadRecipe(CompoundTag nbt)
     {
-        lastUpdateTick = nbt.getLong("lastUpdateTick");
-        sealedTick = nbt.getLong("sealedTick");
-        recipeTick = nbt.getLong("recipeTick");
-
         recipe = null;
         recipeName = null;
         if (nbt.contains("recipe", Tag.TAG_STRING))
@@ -333,7 +357,6 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
                     .orElse(null);
             }
         }
-        super.loadAdditional(nbt);
     }
 
     @Override
@@ -465,7 +488,7 @@ public class BarrelBlockEntity extends TickableInventoryBlockEntity<BarrelBlockE
         if (inventory.excess.isEmpty())
         {
             // Will only work on a recipe as long as the 'excess' is empty
-            recipe = level.getRecipeManager().getRecipeFor(TFCRecipeTypes.BARREL_SEALED.get(), inventory, level).orElse(null);
+            recipe = BarrelRecipe.get(SealedBarrelRecipe.CACHE, inventory, level);
             if (recipe != null && oldRecipe != recipe && (oldRecipe == null || !oldRecipe.getId().equals(recipe.getId())))
             {
                 // The recipe has changed to a new one, so update the recipe ticks
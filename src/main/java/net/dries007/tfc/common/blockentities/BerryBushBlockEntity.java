@@ -39,6 +39,12 @@ public class BerryBushBlockEntity extends TFCBlockEntity implements ICalendarTic
         lastUpdateTick = Calendars.SERVER.getTicks();
     }
 
+    @Override
+    public boolean canDeferCalendarUpdate()
+    {
+        return true; // IBushBlock#onUpdate() works from the time since the last bush update, which does not change by deferring it
+    }
+
     /**
      * @return The number of ticks since this bush block was ticked in {@link IBushBlock#onUpdate(Level, BlockPos, BlockState)}
      */
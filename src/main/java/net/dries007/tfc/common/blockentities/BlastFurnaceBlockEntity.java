@@ -66,7 +66,10 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
     public static void serverTick(Level level, BlockPos pos, BlockState state, BlastFurnaceBlockEntity entity)
     {
         entity.checkForLastTickSync();
-        entity.checkForCalendarUpdate();
+        if (!entity.checkForCalendarUpdate())
+        {
+            return;
+        }
 
         if (level.getGameTime() % 20 == 0)
         {
@@ -252,6 +255,36 @@ public class BlastFurnaceBlockEntity extends TickableInventoryBlockEntity<BlastF
 
         sidedFluidInventory = new SidedHandler.Builder<>(inventory);
 
+        // Temperature and air change every tick while lit, the contents much less often
+        addSyncField("inventory", nbt -> nbt.put("inventory", inventory.serializeNBT()), nbt -> inventory.deserializeNBT(nbt.getCompound("inventory")));
+        addSyncField("stacks", nbt -> {
+            nbt.put("inputStacks", Helpers.writeItemStacksToNbt(inputStacks));
+            nbt.put("catalystStacks", Helpers.writeItemStacksToNbt(catalystStacks));
+            nbt.put("fuelStacks", Helpers.writeItemStacksToNbt(fuelStacks));
+        }, nbt -> {
+            Helpers.readItemStacksFromNbt(inputStacks, nbt.getList("inputStacks", Tag.TAG_COMPOUND));
+            Helpers.readItemStacksFromNbt(catalystStacks, nbt.getList("catalystStacks", Tag.TAG_COMPOUND));
+            Helpers.readItemStacksFromNbt(fuelStacks, nbt.getList("fuelStacks", Tag.TAG_COMPOUND));
+        });
+        addSyncField("fluids", nbt -> {
+            nbt.put("inputFluid", inputFluid.writeToNBT(new CompoundTag()));
+            nbt.put("outputFluidTank", outputFluidTank.writeToNBT(new CompoundTag()));
+        }, nbt -> {
+            inputFluid = FluidStack.loadFluidStackFromNBT(nbt.getCompound("inputFluid"));
+            outputFluidTank.readFromNBT(nbt.getCompound("outputFluidTank"));
+        });
+        addSyncField("heat", nbt -> {
+            nbt.putFloat("temperature", temperature);
+            nbt.putInt("burnTicks", burnTicks);
+            nbt.putInt("airTicks", airTicks);
+            nbt.putFloat("burnTemperature", burnTemperature);
+        }, nbt -> {
+            temperature = nbt.getFloat("temperature");
+            burnTicks = nbt.getInt("burnTicks");
+            airTicks = nbt.getInt("airTicks");
+            burnTemperature = nbt.getFloat("burnTemperature");
+        });
+
         if (TFCConfig.SERVER.blastFurnaceEnableAutomation.get())
         {
             sidedInventory.on(inventory, side -> true); // Insert tuyere from all sides
@@ -29,7 +29,7 @@ import net.minecraftforge.items.ItemStackHandler;
 import net.dries007.tfc.common.TFCTags;
 import net.dries007.tfc.common.blocks.TFCBlocks;
 import net.dries007.tfc.common.blocks.devices.CharcoalForgeBlock;
-import net.dries007.tfc.common.capabilities.Capabilities;
+import net.dries007.tfc.common.capabilities.ItemCapabilityIndex;
 import net.dries007.tfc.common.capabilities.PartialItemHandler;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.FoodTraits;
@@ -67,7 +67,10 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
     public static void serverTick(Level level, BlockPos pos, BlockState state, CharcoalForgeBlockEntity forge)
     {
         forge.checkForLastTickSync();
-        forge.checkForCalendarUpdate();
+        if (!forge.checkForCalendarUpdate())
+        {
+            return;
+        }
 
         if (forge.needsRecipeUpdate)
         {
@@ -303,11 +306,11 @@ public class CharcoalForgeBlockEntity extends TickableInventoryBlockEntity<ItemS
         }
         else if (slot <= SLOT_INPUT_MAX)
         {
-            return Helpers.mightHaveCapability(stack, HeatCapability.CAPABILITY);
+            return ItemCapabilityIndex.HEAT.mightHave(stack);
         }
         else
         {
-            return Helpers.mightHaveCapability(stack, Capabilities.FLUID_ITEM, HeatCapability.CAPABILITY);
+            return ItemCapabilityIndex.FLUID_ITEM.mightHave(stack) && ItemCapabilityIndex.HEAT.mightHave(stack);
         }
     }
 
@@ -63,6 +63,12 @@ public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
         }
     }
 
+    @Override
+    public boolean canDeferCalendarUpdate()
+    {
+        return true; // Growth is computed from the last growth tick, so is the same whenever it is caught up
+    }
+
     public float getGrowth()
     {
         return growth;
@@ -81,19 +87,19 @@ public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
     public void setGrowth(float growth)
     {
         this.growth = growth;
-        markForSync();
+        markForBatchedSync();
     }
 
     public void setYield(float yield)
     {
         this.yield = yield;
-        markForSync();
+        markForBatchedSync();
     }
 
     public void setExpiry(float expiry)
     {
         this.expiry = expiry;
-        markForSync();
+        markDirty(); // Not used on client, so no sync is needed
     }
 
     public long getLastGrowthTick()
@@ -104,7 +110,7 @@ public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
     public void setLastGrowthTick(long lastGrowthTick)
     {
         this.lastGrowthTick = lastGrowthTick;
-        markForSync();
+        markDirty();
     }
 
     @Override
@@ -132,6 +138,25 @@ public class CropBlockEntity extends TFCBlockEntity implements ICalendarTickable
         super.loadAdditional(nbt);
     }
 
+    /**
+     * Only growth and yield are used on client, so the remaining fields are not synced.
+     */
+    @Override
+    public CompoundTag getUpdateTag()
+    {
+        final CompoundTag nbt = new CompoundTag();
+        nbt.putFloat("growth", growth);
+        nbt.putFloat("yield", yield);
+        return nbt;
+    }
+
+    @Override
+    public void handleUpdateTag(CompoundTag nbt)
+    {
+        growth = nbt.getFloat("growth");
+        yield = nbt.getFloat("yield");
+    }
+
     @Override
     public void saveAdditional(CompoundTag nbt)
     {
@@ -52,7 +52,10 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
     public static void serverTick(Level level, BlockPos pos, BlockState state, CrucibleBlockEntity crucible)
     {
         crucible.checkForLastTickSync();
-        crucible.checkForCalendarUpdate();
+        if (!crucible.checkForCalendarUpdate())
+        {
+            return;
+        }
 
         if (crucible.needsRecipeUpdate)
         {
@@ -204,6 +207,17 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
 
         syncableData = new IntArrayBuilder()
             .add(() -> (int) temperature, value -> temperature = value);
+
+        // The alloy changes every tick while pouring, independently of the items
+        addSyncField("items", nbt -> nbt.put("inventory", inventory.inventory.serializeNBT()), nbt -> inventory.inventory.deserializeNBT(nbt.getCompound("inventory")));
+        addSyncField("alloy", nbt -> nbt.put("alloy", inventory.alloy.serializeNBT()), nbt -> inventory.alloy.deserializeNBT(nbt.getCompound("alloy")));
+        addSyncField("temperature", nbt -> {
+            nbt.putFloat("temperature", temperature);
+            nbt.putFloat("targetTemperature", targetTemperature);
+        }, nbt -> {
+            temperature = nbt.getFloat("temperature");
+            targetTemperature = nbt.getFloat("targetTemperature");
+        });
     }
 
     public float getTemperature()
@@ -229,9 +243,9 @@ public class CrucibleBlockEntity extends TickableInventoryBlockEntity<CrucibleBl
     {
         if (slot == SLOT_OUTPUT)
         {
-            return Helpers.mightHaveCapability(stack, Capabilities.FLUID_ITEM, HeatCapability.CAPABILITY);
+            return ItemCapabilityIndex.FLUID_ITEM.mightHave(stack) && ItemCapabilityIndex.HEAT.mightHave(stack);
         }
-        return Helpers.mightHaveCapability(stack, HeatCapability.CAPABILITY);
+        return ItemCapabilityIndex.HEAT.mightHave(stack);
     }
 
     @Override
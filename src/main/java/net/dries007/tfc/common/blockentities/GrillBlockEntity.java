@@ -19,6 +19,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.items.ItemStackHandler;
 
+import net.dries007.tfc.common.capabilities.ItemCapabilityIndex;
 import net.dries007.tfc.common.capabilities.PartialItemHandler;
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
 import net.dries007.tfc.common.capabilities.food.FoodTraits;
@@ -72,7 +73,7 @@ public class GrillBlockEntity extends AbstractFirepitBlockEntity<ItemStackHandle
     {
         if (slot >= SLOT_EXTRA_INPUT_START && slot <= SLOT_EXTRA_INPUT_END)
         {
-            return Helpers.mightHaveCapability(stack, HeatCapability.CAPABILITY);
+            return ItemCapabilityIndex.HEAT.mightHave(stack);
         }
         return super.isItemValid(slot, stack);
     }
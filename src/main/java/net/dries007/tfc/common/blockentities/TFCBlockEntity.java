@@ -6,41 +6,148 @@
 
 package net.dries007.tfc.common.blockentities;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import io.netty.buffer.Unpooled;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.Connection;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.BlockEntityType;
 import net.minecraft.world.level.block.state.BlockState;
 
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+import org.jetbrains.annotations.Nullable;
+
 public abstract class TFCBlockEntity extends BlockEntity
 {
+    private static final String SYNC_FIELDS = "tfc:sync_fields"; // Present only in the tag of a delta update packet
+    private static final int SYNC_BYTES_SAMPLE_INTERVAL = 64; // Encoding a packet to measure it is not free, so only one in this many are measured
+
+    private static final LongAdder FULL_SYNC_PACKETS = new LongAdder();
+    private static final LongAdder DELTA_SYNC_PACKETS = new LongAdder();
+    private static final LongAdder SYNC_BYTES = new LongAdder();
+    private static final LongAdder SKIPPED_SYNCS = new LongAdder();
+    private static final LongAdder DEFERRED_SYNCS = new LongAdder();
+
+    private static int syncBytesSampleCounter; // Only accessed from the server thread
+
+    /**
+     * @return The number of block entity update packets sent to players containing the full update tag.
+     */
+    public static long getFullSyncPackets()
+    {
+        return FULL_SYNC_PACKETS.sum();
+    }
+
+    /**
+     * @return The number of block entity update packets sent to players containing only changed sync fields.
+     */
+    public static long getDeltaSyncPackets()
+    {
+        return DELTA_SYNC_PACKETS.sum();
+    }
+
+    /**
+     * @return An estimate of the total encoded size, in bytes, of all block entity update packets sent to players. This is extrapolated from measuring one in every {@link #SYNC_BYTES_SAMPLE_INTERVAL} packets.
+     */
+    public static long getSyncBytes()
+    {
+        return SYNC_BYTES.sum();
+    }
+
+    /**
+     * @return The number of syncs which were not sent, as none of the sync fields had changed.
+     */
+    public static long getSkippedSyncs()
+    {
+        return SKIPPED_SYNCS.sum();
+    }
+
+    /**
+     * @return The number of syncs which were deferred to the end of the tick, as the block entity had already been synced this tick.
+     */
+    public static long getDeferredSyncs()
+    {
+        return DEFERRED_SYNCS.sum();
+    }
+
+    private final List<SyncField> syncFields = new ArrayList<>();
+    @Nullable private CompoundTag[] lastSyncedFields; // The last value of each sync field that was sent to all watching players, or null if unknown
+    private long lastSyncTick = Long.MIN_VALUE; // The game time of the last sync, used to limit syncs to one per tick
+
+    private boolean syncPending; // If this is queued for a batched sync
+
     protected TFCBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state)
     {
         super(type, pos, state);
     }
 
+    /**
+     * Declares part of the client visible state of this block entity. Once any are declared, update packets only contain the sync fields which have changed since the last update, rather than the full update tag. This means the sync fields of a block entity must together cover <strong>all</strong> the data the client needs, outside of the initial full update tag sent when the chunk is loaded.
+     * Fields are compared by their written value, so a field should group data that tends to change together, and keep data that changes often (such as a temperature) separate from data that does not (such as inventory contents).
+     * Called from the constructor.
+     *
+     * @param name   A name for the field, unique to this block entity.
+     * @param writer Writes the field to an empty tag, as in {@link #saveAdditional(CompoundTag)}.
+     * @param reader Reads the field from the tag written by {@code writer}, as in {@link #loadAdditional(CompoundTag)}.
+     */
+    protected final void addSyncField(String name, Consumer<CompoundTag> writer, Consumer<CompoundTag> reader)
+    {
+        syncFields.add(new SyncField(name, writer, reader));
+        lastSyncedFields = null;
+    }
+
     /**
      * @return The packet to send to the client upon block update. This is returned in client in {@link #onDataPacket(Connection, ClientboundBlockEntityDataPacket)}
+     * If this block entity declares sync fields, this only contains the fields which have changed, and is {@code null} if none have.
      */
+    @Nullable
     @Override
     public ClientboundBlockEntityDataPacket getUpdatePacket()
     {
-        return ClientboundBlockEntityDataPacket.create(this);
+        if (syncFields.isEmpty())
+        {
+            return ClientboundBlockEntityDataPacket.create(this);
+        }
+        final CompoundTag changedFields = saveChangedSyncFields();
+        if (changedFields.isEmpty())
+        {
+            SKIPPED_SYNCS.increment();
+            return null;
+        }
+        final CompoundTag tag = new CompoundTag();
+        tag.put(SYNC_FIELDS, changedFields);
+        return ClientboundBlockEntityDataPacket.create(this, entity -> tag);
     }
 
     /**
-     * Handle a packet sent from {@link #getUpdatePacket()}. Delegates to {@link #handleUpdateTag(CompoundTag)}.
+     * Handle a packet sent from {@link #getUpdatePacket()}. Delegates to {@link #handleUpdateTag(CompoundTag)}, or reads the sync fields it contains.
      */
     @Override
     public void onDataPacket(Connection net, ClientboundBlockEntityDataPacket packet)
     {
-        if (packet.getTag() != null)
+        final CompoundTag tag = packet.getTag();
+        if (tag != null)
         {
-            handleUpdateTag(packet.getTag());
+            if (tag.contains(SYNC_FIELDS, Tag.TAG_COMPOUND))
+            {
+                loadSyncFields(tag.getCompound(SYNC_FIELDS));
+            }
+            else
+            {
+                handleUpdateTag(tag);
+            }
         }
     }
 
@@ -51,6 +158,8 @@ public abstract class TFCBlockEntity extends BlockEntity
     @Override
     public CompoundTag getUpdateTag()
     {
+        // A player receiving this may now have a newer value of a field than the rest, so the next update must include every field
+        lastSyncedFields = null;
         return saveWithoutMetadata();
     }
 
@@ -102,10 +211,53 @@ public abstract class TFCBlockEntity extends BlockEntity
      */
     public void markForSync()
     {
+        if (level != null && level.getGameTime() == lastSyncTick)
+        {
+            // Already synced this tick, so coalesce any further changes into one update at the end of the tick
+            DEFERRED_SYNCS.increment();
+            markForBatchedSync();
+            return;
+        }
         sendVanillaUpdatePacket();
         setChanged();
     }
 
+    /**
+     * Marks a block entity for syncing at the end of the current tick, rather than immediately. Also internally marks dirty.
+     * Multiple calls in the same tick are coalesced into a single update packet. Use preferentially over {@link #markForSync()} for data that may be modified in several places at once.
+     */
+    public void markForBatchedSync()
+    {
+        if (level instanceof ServerLevel serverLevel && !syncPending)
+        {
+            final WorldTracker tracker = serverLevel.getCapability(WorldTrackerCapability.CAPABILITY).resolve().orElse(null);
+            if (tracker == null)
+            {
+                sendVanillaUpdatePacket();
+                setChanged();
+                return;
+            }
+            syncPending = true;
+            tracker.addPendingSync(this);
+            setChanged();
+        }
+    }
+
+    /**
+     * Called at the end of the tick, for block entities marked with {@link #markForBatchedSync()}.
+     */
+    public void sendPendingSync()
+    {
+        if (syncPending)
+        {
+            syncPending = false;
+            if (!isRemoved())
+            {
+                sendVanillaUpdatePacket();
+            }
+        }
+    }
+
     /**
      * Marks a block entity as dirty, without updating the comparator output. Use preferentially for updates that want to mark themselves as dirty every tick, and don't require updating comparator output.
      * Reimplements {@link net.minecraft.world.level.Level#blockEntityChanged(BlockPos)} due to trying to avoid comparator updates, called due to MinecraftForge#9169
@@ -121,11 +273,80 @@ public abstract class TFCBlockEntity extends BlockEntity
 
     public void sendVanillaUpdatePacket()
     {
-        final ClientboundBlockEntityDataPacket packet = getUpdatePacket();
-        final BlockPos pos = getBlockPos();
-        if (packet != null && level instanceof ServerLevel serverLevel)
+        if (level instanceof ServerLevel serverLevel)
+        {
+            lastSyncTick = serverLevel.getGameTime();
+
+            final List<ServerPlayer> players = serverLevel.getChunkSource().chunkMap.getPlayers(new ChunkPos(getBlockPos()), false);
+            if (players.isEmpty())
+            {
+                // No need to build a packet, but the next one must include every field, as it may be sent to a player who has since started watching
+                lastSyncedFields = null;
+                return;
+            }
+
+            final ClientboundBlockEntityDataPacket packet = getUpdatePacket();
+            if (packet != null)
+            {
+                players.forEach(e -> e.connection.send(packet));
+                (syncFields.isEmpty() ? FULL_SYNC_PACKETS : DELTA_SYNC_PACKETS).add(players.size());
+                if (++syncBytesSampleCounter >= SYNC_BYTES_SAMPLE_INTERVAL)
+                {
+                    syncBytesSampleCounter = 0;
+                    SYNC_BYTES.add((long) getEncodedSize(packet) * players.size() * SYNC_BYTES_SAMPLE_INTERVAL);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes each sync field, and records it as the last synced value.
+     *
+     * @return A tag containing each field that differs from the last synced value.
+     */
+    private CompoundTag saveChangedSyncFields()
+    {
+        final CompoundTag[] lastSyncedFields = this.lastSyncedFields != null ? this.lastSyncedFields : new CompoundTag[syncFields.size()];
+        final CompoundTag changedFields = new CompoundTag();
+        for (int i = 0; i < syncFields.size(); i++)
+        {
+            final SyncField field = syncFields.get(i);
+            final CompoundTag fieldTag = new CompoundTag();
+            field.writer.accept(fieldTag);
+            if (!fieldTag.equals(lastSyncedFields[i]))
+            {
+                changedFields.put(field.name, fieldTag);
+                lastSyncedFields[i] = fieldTag;
+            }
+        }
+        this.lastSyncedFields = lastSyncedFields;
+        return changedFields;
+    }
+
+    private void loadSyncFields(CompoundTag changedFields)
+    {
+        for (SyncField field : syncFields)
+        {
+            if (changedFields.contains(field.name, Tag.TAG_COMPOUND))
+            {
+                field.reader.accept(changedFields.getCompound(field.name));
+            }
+        }
+    }
+
+    private int getEncodedSize(ClientboundBlockEntityDataPacket packet)
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        try
         {
-            serverLevel.getChunkSource().chunkMap.getPlayers(new ChunkPos(pos), false).forEach(e -> e.connection.send(packet));
+            packet.write(buffer);
+            return buffer.readableBytes();
+        }
+        finally
+        {
+            buffer.release();
         }
     }
+
+    private record SyncField(String name, Consumer<CompoundTag> writer, Consumer<CompoundTag> reader) {}
 }
@@ -41,7 +41,6 @@ import net.dries007.tfc.common.blocks.IForgeBlockExtension;
 import net.dries007.tfc.common.blocks.soil.FarmlandBlock;
 import net.dries007.tfc.common.blocks.soil.HoeOverlayBlock;
 import net.dries007.tfc.util.Helpers;
-import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.climate.ClimateRange;
 
 public abstract class CropBlock extends net.minecraft.world.level.block.CropBlock implements HoeOverlayBlock, ICropBlock, IForgeBlockExtension, EntityBlockExtension
@@ -200,7 +199,7 @@ public abstract class CropBlock extends net.minecraft.world.level.block.CropBloc
         {
             if (isDebug)
             {
-                text.add(Helpers.literal(String.format("[Debug] Growth = %.4f Yield = %.4f Expiry = %.4f Last Tick = %d Delta = %d", crop.getGrowth(), crop.getYield(), crop.getExpiry(), crop.getLastGrowthTick(), Calendars.get(level).getTicks() - crop.getLastGrowthTick())));
+                text.add(Helpers.literal(String.format("[Debug] Growth = %.4f Yield = %.4f", crop.getGrowth(), crop.getYield()))); // Expiry and last growth tick are not synced to client
             }
             if (crop.getGrowth() >= 1)
             {
@@ -0,0 +1,83 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.common.capabilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.common.capabilities.Capability;
+
+import net.dries007.tfc.common.capabilities.egg.EggCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.util.Helpers;
+
+/**
+ * An index of which items may have a given capability, used in place of {@link Helpers#mightHaveCapability(ItemStack, Capability)} in hot paths, such as {@code isItemValid()} checks, which are queried on every insertion attempt by hoppers and other automation.
+ * <p>
+ * Whether a stack without a tag has a capability depends only on its item, and on the currently loaded data, so that is computed once per item (with the same stack copy as {@link Helpers#mightHaveCapability(ItemStack, Capability)}), and then answered with a single lookup. Stacks with a tag, such as filled molds or vessels, may differ from the default, and are always checked directly.
+ * All indexes are cleared when data or tags are reloaded.
+ */
+public final class ItemCapabilityIndex
+{
+    private static final List<ItemCapabilityIndex> INDEXES = new ArrayList<>();
+
+    public static final ItemCapabilityIndex HEAT = create(HeatCapability.CAPABILITY);
+    public static final ItemCapabilityIndex FLUID = create(Capabilities.FLUID);
+    public static final ItemCapabilityIndex FLUID_ITEM = create(Capabilities.FLUID_ITEM);
+    public static final ItemCapabilityIndex EGG = create(EggCapability.CAPABILITY);
+
+    /**
+     * Called on data and tag reload, as this may change which items have a capability.
+     */
+    public static void clearAll()
+    {
+        for (ItemCapabilityIndex index : INDEXES)
+        {
+            index.untagged.clear();
+        }
+    }
+
+    private static ItemCapabilityIndex create(Capability<?> capability)
+    {
+        final ItemCapabilityIndex index = new ItemCapabilityIndex(capability);
+        INDEXES.add(index);
+        return index;
+    }
+
+    private final Capability<?> capability;
+    private final Map<Item, Boolean> untagged; // Concurrent, as this is shared between the logical client and server
+
+    private ItemCapabilityIndex(Capability<?> capability)
+    {
+        this.capability = capability;
+        this.untagged = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return {@code true} if a single item of this stack would have the capability.
+     * @see Helpers#mightHaveCapability(ItemStack, Capability)
+     */
+    public boolean mightHave(ItemStack stack)
+    {
+        if (stack.isEmpty() || stack.hasTag())
+        {
+            return Helpers.mightHaveCapability(stack, capability);
+        }
+        final Item item = stack.getItem();
+        final Boolean result = untagged.get(item);
+        if (result != null)
+        {
+            return result;
+        }
+        final boolean computed = Helpers.mightHaveCapability(stack, capability);
+        untagged.put(item, computed);
+        return computed;
+    }
+}
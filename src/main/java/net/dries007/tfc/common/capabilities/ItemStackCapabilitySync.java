@@ -6,14 +6,20 @@
 
 package net.dries007.tfc.common.capabilities;
 
+import io.netty.handler.codec.DecoderException;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.item.ItemStack;
-import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.util.INBTSerializable;
+import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.common.capabilities.food.FoodCapability;
+import net.dries007.tfc.common.capabilities.food.FoodData;
+import net.dries007.tfc.common.capabilities.food.FoodHandler;
+import net.dries007.tfc.common.capabilities.food.IFood;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
+import net.dries007.tfc.common.capabilities.heat.HeatHandler;
+import net.dries007.tfc.common.capabilities.heat.IHeat;
 
 /**
  * This is a manager for capabilities that need to be synced externally, constantly.
@@ -31,10 +37,19 @@ import net.dries007.tfc.common.capabilities.heat.HeatCapability;
  * - All other capabilities use the stack tag to avoid sync concerns.
  * <p>
  * Finally, in order to avoid issues caused by other mods due to incorrectly synced item stacks (see <a href="https://github.com/TerraFirmaCraft/TerraFirmaCraft/issues/2198">TerraFirmaCraft#2198</a>), we need to write and read this data in an as unconditional method as possible.
- * This means we cannot check for empty stacks, or those that do not have a capability. In the best case, we write an additional +1 bytes per item stack (a typical item stack has ~4-6 bytes default). This is about as least-cost that we can make it (in the worst case, we write 1 + two nbt tags).
+ * This means we cannot check for empty stacks, or those that do not have a capability. In the best case, we write an additional +1 bytes per item stack (a typical item stack has ~4-6 bytes default).
+ * <p>
+ * The format is a single header byte, which is either zero (no capabilities), or the format version. Then each capability is written as a type byte, followed by either the compact binary form written by {@link FoodHandler} and {@link HeatHandler}, or NBT for any other implementations.
  */
 public final class ItemStackCapabilitySync
 {
+    private static final byte NONE = 0;
+    private static final byte VERSION = 2; // The previous format wrote a boolean, so this starts at 2 in order to be distinguishable from it.
+
+    private static final byte ABSENT = 0;
+    private static final byte NBT = 1;
+    private static final byte COMPACT = 2;
+
     public static boolean hasSyncableCapability(ItemStack stack)
     {
         return stack.getCapability(FoodCapability.CAPABILITY).isPresent() || stack.getCapability(HeatCapability.CAPABILITY).isPresent();
@@ -47,41 +62,110 @@ public final class ItemStackCapabilitySync
         // While this is a weird construct, we should be able to synchronize on the item stack itself - this will prevent any stacks from having getCapability invoked and resolved by two threads at once. Different stacks should be fully safe to execute independently.
         synchronized (stack)
         {
-            if (hasSyncableCapability(stack))
+            writeToNetwork(stack.getCapability(FoodCapability.CAPABILITY).resolve().orElse(null), stack.getCapability(HeatCapability.CAPABILITY).resolve().orElse(null), buffer);
+        }
+    }
+
+    public static void readFromNetwork(ItemStack stack, FriendlyByteBuf buffer)
+    {
+        // Only resolve capabilities if there is anything to read into them
+        if (readHeader(buffer))
+        {
+            readCapabilities(stack.getCapability(FoodCapability.CAPABILITY).resolve().orElse(null), stack.getCapability(HeatCapability.CAPABILITY).resolve().orElse(null), buffer);
+        }
+    }
+
+    /**
+     * Writes the given capabilities of a stack, either of which may be absent.
+     */
+    public static void writeToNetwork(@Nullable IFood food, @Nullable IHeat heat, FriendlyByteBuf buffer)
+    {
+        if (food != null || heat != null)
+        {
+            buffer.writeByte(VERSION);
+            if (food instanceof FoodHandler handler)
+            {
+                buffer.writeByte(COMPACT);
+                handler.writeToNetwork(buffer);
+            }
+            else
+            {
+                writeNbt(food, buffer);
+            }
+            if (heat instanceof HeatHandler handler)
             {
-                buffer.writeBoolean(true);
-                writeToNetwork(FoodCapability.CAPABILITY, stack, buffer);
-                writeToNetwork(HeatCapability.CAPABILITY, stack, buffer);
+                buffer.writeByte(COMPACT);
+                handler.writeToNetwork(buffer);
             }
             else
             {
-                buffer.writeBoolean(false);
+                writeNbt(heat, buffer);
             }
         }
+        else
+        {
+            buffer.writeByte(NONE);
+        }
     }
 
-    public static void readFromNetwork(ItemStack stack, FriendlyByteBuf buffer)
+    /**
+     * Reads the output of {@link #writeToNetwork(IFood, IHeat, FriendlyByteBuf)} into the given capabilities. This always reads the whole output, even if the capabilities do not match those that were written.
+     */
+    public static void readFromNetwork(@Nullable IFood food, @Nullable IHeat heat, FriendlyByteBuf buffer)
+    {
+        if (readHeader(buffer))
+        {
+            readCapabilities(food, heat, buffer);
+        }
+    }
+
+    /**
+     * @return {@code true} if any capabilities follow the header.
+     */
+    private static boolean readHeader(FriendlyByteBuf buffer)
     {
-        if (buffer.readBoolean())
+        final byte header = buffer.readByte();
+        if (header != NONE && header != VERSION)
         {
-            readFromNetwork(FoodCapability.CAPABILITY, stack, buffer);
-            readFromNetwork(HeatCapability.CAPABILITY, stack, buffer);
+            throw new DecoderException("Unknown item stack capability sync format: " + header + ", expected " + VERSION);
         }
+        return header == VERSION;
     }
 
-    private static void writeToNetwork(Capability<? extends INBTSerializable<CompoundTag>> capability, ItemStack stack, FriendlyByteBuf buffer)
+    private static void readCapabilities(@Nullable IFood food, @Nullable IHeat heat, FriendlyByteBuf buffer)
     {
-        buffer.writeNbt(stack.getCapability(capability)
-            .map(INBTSerializable::serializeNBT)
-            .orElse(null));
+        switch (buffer.readByte())
+        {
+            case NBT -> readNbt(food, buffer);
+            // If the handler does not match, still read into a throwaway handler to consume the data
+            case COMPACT -> (food instanceof FoodHandler handler ? handler : new FoodHandler(FoodData.EMPTY)).readFromNetwork(buffer);
+        }
+        switch (buffer.readByte())
+        {
+            case NBT -> readNbt(heat, buffer);
+            case COMPACT -> (heat instanceof HeatHandler handler ? handler : new HeatHandler(1, 0, 0)).readFromNetwork(buffer);
+        }
+    }
+
+    private static void writeNbt(@Nullable INBTSerializable<CompoundTag> capability, FriendlyByteBuf buffer)
+    {
+        if (capability != null)
+        {
+            buffer.writeByte(NBT);
+            buffer.writeNbt(capability.serializeNBT());
+        }
+        else
+        {
+            buffer.writeByte(ABSENT);
+        }
     }
 
-    private static void readFromNetwork(Capability<? extends INBTSerializable<CompoundTag>> capability, ItemStack stack, FriendlyByteBuf buffer)
+    private static void readNbt(@Nullable INBTSerializable<CompoundTag> capability, FriendlyByteBuf buffer)
     {
         final CompoundTag tag = buffer.readNbt();
-        if (tag != null)
+        if (tag != null && capability != null)
         {
-            stack.getCapability(capability).ifPresent(cap -> cap.deserializeNBT(tag));
+            capability.deserializeNBT(tag);
         }
     }
 }
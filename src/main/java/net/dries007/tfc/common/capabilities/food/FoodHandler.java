@@ -14,6 +14,7 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ICapabilitySerializable;
@@ -200,6 +201,51 @@ public class FoodHandler implements ICapabilitySerializable<CompoundTag>, IFood
         creationDate = nbt.contains("creationDate") ? nbt.getLong("creationDate") : UNKNOWN_CREATION_DATE;
     }
 
+    /**
+     * Writes the same state as {@link #serializeNBT()} in a compact binary form, for syncing to client, without constructing any NBT.
+     * Subclasses which override {@link #serializeNBT()} must override this and {@link #readFromNetwork(FriendlyByteBuf)} as well.
+     */
+    public void writeToNetwork(FriendlyByteBuf buffer)
+    {
+        writeCreationDate(buffer, getCreationDate());
+        buffer.writeVarInt(foodTraits.size());
+        for (FoodTrait trait : foodTraits)
+        {
+            buffer.writeResourceLocation(FoodTrait.getId(trait));
+        }
+        buffer.writeBoolean(isDynamic());
+        if (isDynamic())
+        {
+            data.encode(buffer);
+        }
+    }
+
+    /**
+     * Reads the output of {@link #writeToNetwork(FriendlyByteBuf)}. This must always read the whole output, even if it was written by a different handler.
+     */
+    public void readFromNetwork(FriendlyByteBuf buffer)
+    {
+        creationDate = readCreationDate(buffer);
+        foodTraits.clear();
+        final int size = buffer.readVarInt();
+        for (int i = 0; i < size; i++)
+        {
+            final FoodTrait trait = FoodTrait.getTrait(buffer.readResourceLocation());
+            if (trait != null)
+            {
+                foodTraits.add(trait);
+            }
+        }
+        if (buffer.readBoolean())
+        {
+            final FoodData data = FoodData.decode(buffer);
+            if (isDynamic())
+            {
+                this.data = data;
+            }
+        }
+    }
+
     /**
      * This marks if the food data should be serialized. For normal food items, it isn't, because all values are provided on construction via CapabilityFood. Only mark this if food data will change per item stack
      */
@@ -208,6 +254,24 @@ public class FoodHandler implements ICapabilitySerializable<CompoundTag>, IFood
         return false;
     }
 
+    /**
+     * Creation dates are mostly small and positive, with a few negative sentinel values, so they are written zig-zag encoded as a var long. {@link #ROTTEN_DATE} is written as zero.
+     */
+    private static void writeCreationDate(FriendlyByteBuf buffer, long creationDate)
+    {
+        buffer.writeVarLong(creationDate == ROTTEN_DATE ? 0 : ((creationDate << 1) ^ (creationDate >> 63)) + 1);
+    }
+
+    private static long readCreationDate(FriendlyByteBuf buffer)
+    {
+        final long value = buffer.readVarLong();
+        if (value == 0)
+        {
+            return ROTTEN_DATE;
+        }
+        return ((value - 1) >>> 1) ^ -((value - 1) & 1);
+    }
+
     private long calculateRottenDate(long creationDateIn)
     {
         float decayMod = getDecayDateModifier();
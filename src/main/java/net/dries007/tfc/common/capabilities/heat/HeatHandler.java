@@ -8,6 +8,7 @@ package net.dries007.tfc.common.capabilities.heat;
 
 import net.minecraft.core.Direction;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.ICapabilitySerializable;
 import net.minecraftforge.common.util.LazyOptional;
@@ -124,6 +125,32 @@ public class HeatHandler implements ICapabilitySerializable<CompoundTag>, IHeat
         lastUpdateTick = nbt.getLong("ticks");
     }
 
+    /**
+     * Writes the same state as {@link #serializeNBT()} in a compact binary form, for syncing to client, without constructing any NBT.
+     * A cold item is written as a single zero temperature, with no tick.
+     */
+    public void writeToNetwork(FriendlyByteBuf buffer)
+    {
+        if (getTemperature() <= 0)
+        {
+            buffer.writeFloat(0);
+        }
+        else
+        {
+            buffer.writeFloat(temperature);
+            buffer.writeVarLong(lastUpdateTick);
+        }
+    }
+
+    /**
+     * Reads the output of {@link #writeToNetwork(FriendlyByteBuf)}.
+     */
+    public void readFromNetwork(FriendlyByteBuf buffer)
+    {
+        temperature = buffer.readFloat();
+        lastUpdateTick = temperature == 0 ? 0 : buffer.readVarLong();
+    }
+
     /**
      * Sets the current heat capacity, for implementations that might change this based on an internal state
      */
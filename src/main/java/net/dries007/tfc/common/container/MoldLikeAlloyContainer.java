@@ -19,9 +19,9 @@ import net.minecraftforge.items.ItemHandlerHelper;
 
 import net.dries007.tfc.common.capabilities.Capabilities;
 import net.dries007.tfc.common.capabilities.InventoryItemHandler;
+import net.dries007.tfc.common.capabilities.ItemCapabilityIndex;
 import net.dries007.tfc.common.capabilities.MoldLike;
 import net.dries007.tfc.common.capabilities.heat.HeatCapability;
-import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.Metal;
 
 import org.jetbrains.annotations.Nullable;
@@ -120,7 +120,7 @@ public class MoldLikeAlloyContainer extends ItemStackContainer implements ISlotC
     @Override
     public boolean isItemValid(int slot, ItemStack stack)
     {
-        return Helpers.mightHaveCapability(stack, Capabilities.FLUID);
+        return ItemCapabilityIndex.FLUID.mightHave(stack);
     }
 
     public IItemHandler getInventory()
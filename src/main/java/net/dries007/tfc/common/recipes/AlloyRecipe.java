@@ -7,8 +7,11 @@
 package net.dries007.tfc.common.recipes;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -28,14 +31,30 @@ import net.minecraft.world.level.Level;
 import net.dries007.tfc.common.recipes.inventory.AlloyInventory;
 import net.dries007.tfc.util.JsonHelpers;
 import net.dries007.tfc.util.Metal;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public class AlloyRecipe implements ISimpleRecipe<AlloyInventory>
 {
-    @SuppressWarnings("ConstantConditions")
+    public static final IndirectHashCollection<Metal, AlloyRecipe> CACHE = IndirectHashCollection.createForRecipe(AlloyRecipe::getValidMetals, TFCRecipeTypes.ALLOY);
+
+    /**
+     * Every metal in an alloy must be either one of the contents, or the result, of a recipe for it to match, so only recipes which include any one of the alloy's metals need to be tested.
+     */
     public static Optional<AlloyRecipe> get(RecipeManager recipes, AlloyInventory inventory)
     {
-        return recipes.getRecipeFor(TFCRecipeTypes.ALLOY.get(), inventory, null);
+        final Iterator<Metal> metals = inventory.getAlloy().getMetals().keySet().iterator();
+        if (metals.hasNext())
+        {
+            for (AlloyRecipe recipe : CACHE.getAll(metals.next()))
+            {
+                if (recipe.matches(inventory, null))
+                {
+                    return Optional.of(recipe);
+                }
+            }
+        }
+        return Optional.empty();
     }
 
     private final ResourceLocation id;
@@ -59,6 +78,13 @@ public class AlloyRecipe implements ISimpleRecipe<AlloyInventory>
         return result.get();
     }
 
+    public Set<Metal> getValidMetals()
+    {
+        final Set<Metal> metals = new HashSet<>(getRanges().keySet());
+        metals.add(getResult());
+        return metals;
+    }
+
     @Override
     public boolean matches(AlloyInventory wrapper, @Nullable Level level)
     {
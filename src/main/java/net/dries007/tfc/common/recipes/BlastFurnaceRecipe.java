@@ -6,6 +6,8 @@
 
 package net.dries007.tfc.common.recipes;
 
+import java.util.Collection;
+
 import com.google.gson.JsonObject;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
@@ -14,17 +16,20 @@ import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 
 import net.dries007.tfc.common.recipes.ingredients.FluidStackIngredient;
 import net.dries007.tfc.common.recipes.inventory.EmptyInventory;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
-import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inventory>
 {
+    public static final IndirectHashCollection<Fluid, BlastFurnaceRecipe> CACHE = IndirectHashCollection.createForRecipe(BlastFurnaceRecipe::getValidFluids, TFCRecipeTypes.BLAST_FURNACE);
+
     /**
      * @return A recipe matching a primary input item stack.
      */
@@ -35,14 +40,7 @@ public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inve
         final HeatingRecipe heatRecipe = HeatingRecipe.getRecipe(inventory);
         if (heatRecipe != null)
         {
-            final FluidStack moltenFluid = heatRecipe.assembleFluid(inventory);
-            for (BlastFurnaceRecipe recipe : Helpers.getRecipes(level, TFCRecipeTypes.BLAST_FURNACE).values())
-            {
-                if (recipe.inputFluid.ingredient().test(moltenFluid.getFluid()))
-                {
-                    return recipe;
-                }
-            }
+            return get(level, heatRecipe.assembleFluid(inventory));
         }
         return null;
     }
@@ -53,7 +51,7 @@ public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inve
     @Nullable
     public static BlastFurnaceRecipe get(Level level, FluidStack inputFluid)
     {
-        for (BlastFurnaceRecipe recipe : Helpers.getRecipes(level, TFCRecipeTypes.BLAST_FURNACE).values())
+        for (BlastFurnaceRecipe recipe : CACHE.getAll(inputFluid.getFluid()))
         {
             if (recipe.inputFluid.ingredient().test(inputFluid.getFluid()))
             {
@@ -86,6 +84,11 @@ public class BlastFurnaceRecipe implements ISimpleRecipe<BlastFurnaceRecipe.Inve
         return inputFluid;
     }
 
+    public Collection<Fluid> getValidFluids()
+    {
+        return inputFluid.ingredient().getMatchingFluids();
+    }
+
     @Override
     public boolean matches(Inventory inventory, @Nullable Level level)
     {
@@ -6,6 +6,8 @@
 
 package net.dries007.tfc.common.recipes;
 
+import java.util.Collection;
+
 import com.google.gson.JsonObject;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
@@ -14,18 +16,21 @@ import net.minecraft.world.item.crafting.Ingredient;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 import net.minecraftforge.fluids.FluidStack;
 
 import net.dries007.tfc.common.recipes.ingredients.FluidStackIngredient;
 import net.dries007.tfc.common.recipes.inventory.BloomeryInventory;
 import net.dries007.tfc.common.recipes.inventory.ItemStackInventory;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
-import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public class BloomeryRecipe implements ISimpleRecipe<BloomeryInventory>
 {
+    public static final IndirectHashCollection<Fluid, BloomeryRecipe> CACHE = IndirectHashCollection.createForRecipe(BloomeryRecipe::getValidFluids, TFCRecipeTypes.BLOOMERY);
+
     /**
      * Gets a recipe matching a primary input item stack.
      */
@@ -37,7 +42,7 @@ public class BloomeryRecipe implements ISimpleRecipe<BloomeryInventory>
         if (heatRecipe != null)
         {
             final FluidStack moltenFluid = heatRecipe.assembleFluid(inventory);
-            for (BloomeryRecipe recipe : Helpers.getRecipes(level, TFCRecipeTypes.BLOOMERY).values())
+            for (BloomeryRecipe recipe : CACHE.getAll(moltenFluid.getFluid()))
             {
                 if (recipe.inputFluid.ingredient().test(moltenFluid.getFluid()))
                 {
@@ -78,6 +83,11 @@ public class BloomeryRecipe implements ISimpleRecipe<BloomeryInventory>
         return inputFluid;
     }
 
+    public Collection<Fluid> getValidFluids()
+    {
+        return inputFluid.ingredient().getMatchingFluids();
+    }
+
     @Override
     public boolean matches(BloomeryInventory inv, Level level)
     {
@@ -80,8 +80,10 @@ public class CollapseRecipe extends SimpleBlockRecipe
                 final int radZ = (random.nextInt(5) + 4) / 2;
 
                 final List<BlockPos> fakeCollapseStarts = new ArrayList<>();
-                for (BlockPos checking : Support.findUnsupportedPositions(level, pos.offset(-radX, -radY, -radZ), pos.offset(radX, radY, radZ))) // 9x5x9 max
+                final BlockPos.MutableBlockPos checking = new BlockPos.MutableBlockPos();
+                for (long packed : Support.findUnsupportedPositions(level, pos.offset(-radX, -radY, -radZ), pos.offset(radX, radY, radZ))) // 9x5x9 max
                 {
+                    checking.set(packed);
                     // Exclude the position being mined, as it's done before the mining is completed, which is unintuitive
                     if (!checking.equals(pos) && canStartCollapse(level, checking))
                     {
@@ -90,7 +92,7 @@ public class CollapseRecipe extends SimpleBlockRecipe
                             fakeCollapseStarts.add(checking.immutable());
                             continue;
                         }
-                        if (startCollapse(level, checking))
+                        if (startCollapse(level, checking.immutable()))
                         {
                             level.playSound(null, pos, TFCSounds.ROCK_SLIDE_LONG.get(), SoundSource.BLOCKS, 1.0f, 1.0f);
                         }
@@ -12,12 +12,16 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.material.Fluid;
 
 import net.dries007.tfc.common.blockentities.BarrelBlockEntity;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public class InstantBarrelRecipe extends BarrelRecipe
 {
+    public static final IndirectHashCollection<Fluid, InstantBarrelRecipe> CACHE = IndirectHashCollection.createForRecipe(BarrelRecipe::getValidFluids, TFCRecipeTypes.BARREL_INSTANT);
+
     public InstantBarrelRecipe(ResourceLocation id, Builder builder)
     {
         super(id, builder);
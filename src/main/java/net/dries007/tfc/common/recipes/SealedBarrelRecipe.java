@@ -12,15 +12,19 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.RecipeSerializer;
 import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.material.Fluid;
 
 import net.dries007.tfc.common.blockentities.BarrelBlockEntity;
 import net.dries007.tfc.common.recipes.outputs.ItemStackProvider;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.util.JsonHelpers;
+import net.dries007.tfc.util.collections.IndirectHashCollection;
 import org.jetbrains.annotations.Nullable;
 
 public class SealedBarrelRecipe extends BarrelRecipe
 {
+    public static final IndirectHashCollection<Fluid, SealedBarrelRecipe> CACHE = IndirectHashCollection.createForRecipe(BarrelRecipe::getValidFluids, TFCRecipeTypes.BARREL_SEALED);
+
     private final int duration;
 
     @Nullable private final ItemStackProvider onSeal;
@@ -32,6 +32,9 @@ public class CommonConfig
     public final ForgeConfigSpec.IntValue defaultMonthLength;
     public final ForgeConfigSpec.IntValue defaultCalendarStartDay;
 
+    // World Generation
+    public final ForgeConfigSpec.BooleanValue enableParallelNoiseFilling;
+
     // Debug
     private final ForgeConfigSpec.BooleanValue enableNetworkDebugging;
     private boolean hasLoggedNetworkDebugInfoMessage = false;
@@ -63,6 +66,14 @@ public class CommonConfig
             " The default is (5 * daysInMonth) = 40, which starts at June 1, 1000 (with the default daysInMonth = 8)"
         ).defineInRange("defaultCalendarStartDay", (5 * 8), -1, Integer.MAX_VALUE);
 
+        innerBuilder.pop().push("worldgen");
+
+        enableParallelNoiseFilling = builder.apply("enableParallelNoiseFilling").comment(
+            " If enabled, the terrain of each chunk is filled by multiple threads at once, using a dedicated pool of worker threads.",
+            " This can speed up world generation when fewer chunks are generating at once than there are available cores, for instance when preparing the spawn area, or pregenerating on a server with many cores.",
+            " The generated terrain is identical either way."
+        ).define("enableParallelNoiseFilling", false);
+
         innerBuilder.pop().push("debug");
 
         enableNetworkDebugging = builder.apply("enableNetworkDebugging").comment(
@@ -38,6 +38,7 @@ public class ServerConfig
     public final ForgeConfigSpec.BooleanValue enableCalendarSensitiveMoonPhases;
     public final ForgeConfigSpec.BooleanValue enableLightning;
     public final ForgeConfigSpec.BooleanValue enableLightningStrippingLogs;
+    public final ForgeConfigSpec.IntValue calendarCatchUpBudget;
 
     // Blocks - Farmland
     public final ForgeConfigSpec.BooleanValue enableFarmlandCreation;
@@ -257,6 +258,10 @@ public class ServerConfig
         enableCalendarSensitiveMoonPhases = builder.apply("enableCalendarSensitiveMoonPhases").comment("Enables TFC setting the moon phase based on the progress of the month. The etymology of the English word 'month' is in fact related to the word 'moon'.").define("enableCalendarSensitiveMoonPhases", true);
         enableLightning = builder.apply("enableLightning").comment("If false, vanilla lightning will not strike.").define("enableLightning", true);
         enableLightningStrippingLogs = builder.apply("enableLightningStrippingLogs").comment("If true, lightning has a chance of stripping bark off of trees.").define("enableLightningStrippingLogs", true);
+        calendarCatchUpBudget = builder.apply("calendarCatchUpBudget").comment(
+            "The maximum time, in milliseconds, spent each tick catching up crops and berry bushes after a calendar skip, such as sleeping, or when their chunk loads. Devices always catch up immediately.",
+            "Remaining blocks catch up on following ticks, which avoids a lag spike when many of them need to catch up at once. Set to zero to always catch up immediately."
+        ).defineInRange("calendarCatchUpBudget", 10, 0, 1000);
 
         innerBuilder.pop().push("blocks").push("farmland");
 
@@ -13,6 +13,9 @@ import net.minecraft.world.level.biome.Biome;
 import net.dries007.tfc.client.ClimateRenderCache;
 import net.dries007.tfc.util.EnvironmentHelpers;
 import net.dries007.tfc.util.climate.Climate;
+import net.dries007.tfc.util.climate.ClimateModel;
+import net.dries007.tfc.util.climate.LevelBridge;
+import org.jetbrains.annotations.Nullable;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -21,11 +24,27 @@ import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(Level.class)
-public abstract class LevelMixin
+public abstract class LevelMixin implements LevelBridge
 {
+    // null = not resolved yet, or invalidated
+    private volatile @Nullable ClimateModel tfc$climateModel;
+
     @Shadow
     public abstract boolean isClientSide();
 
+    @Nullable
+    @Override
+    public ClimateModel tfc$getClimateModel()
+    {
+        return tfc$climateModel;
+    }
+
+    @Override
+    public void tfc$setClimateModel(@Nullable ClimateModel model)
+    {
+        tfc$climateModel = model;
+    }
+
     /**
      * The call to {@link Biome#getPrecipitation()} will always pass, as it's only checked against rain. We just need to check both climate and actual rainfall state here.
      */
@@ -6,86 +6,149 @@
 
 package net.dries007.tfc.network;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraftforge.network.NetworkEvent;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import net.dries007.tfc.client.ClientHelpers;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.chunkdata.*;
 
 /**
- * Sent from server -> client on chunk watch, partially syncs chunk data and updates the client cache
+ * Sent from server -> client on chunk watch and unwatch, partially syncs chunk data and updates the client cache.
+ * All chunks watched or unwatched by a player in a single tick are batched into one packet, see {@link ChunkDataCache.SyncQueue}.
+ * <p>
+ * Chunk positions are written as a difference from the previous position, as watched chunks are typically adjacent. Rainfall and temperature are quantized (see {@link LerpFloatLayer#encodeQuantized(FriendlyByteBuf)}), and forest density and weirdness, which are in [0, 1], are written as unsigned shorts.
  */
 public class ChunkWatchPacket
 {
-    private final int chunkX;
-    private final int chunkZ;
-    @Nullable private final LerpFloatLayer rainfallLayer;
-    @Nullable private final LerpFloatLayer temperatureLayer;
-    private final ForestType forestType;
-    private final float forestWeirdness;
-    private final float forestDensity;
-    private final PlateTectonicsClassification plateTectonicsInfo;
-
-    public ChunkWatchPacket(int chunkX, int chunkZ, @Nullable LerpFloatLayer rainfallLayer, @Nullable LerpFloatLayer temperatureLayer, ForestType forestType, float forestDensity, float forestWeirdness, PlateTectonicsClassification plateTectonicsInfo)
+    private static final float FOREST_SCALE = 0xFFFF;
+
+    private final LongList unwatched;
+    private final List<Entry> watched;
+
+    public ChunkWatchPacket(LongList unwatched, List<Entry> watched)
     {
-        this.chunkX = chunkX;
-        this.chunkZ = chunkZ;
-        this.rainfallLayer = rainfallLayer;
-        this.temperatureLayer = temperatureLayer;
-        this.forestType = forestType;
-        this.forestDensity = forestDensity;
-        this.forestWeirdness = forestWeirdness;
-        this.plateTectonicsInfo = plateTectonicsInfo;
+        this.unwatched = unwatched;
+        this.watched = watched;
     }
 
-    ChunkWatchPacket(FriendlyByteBuf buffer)
+    public ChunkWatchPacket(FriendlyByteBuf buffer)
     {
-        chunkX = buffer.readVarInt();
-        chunkZ = buffer.readVarInt();
-        rainfallLayer = Helpers.decodeNullable(buffer, LerpFloatLayer::new);
-        temperatureLayer = Helpers.decodeNullable(buffer, LerpFloatLayer::new);
-        forestType = ForestType.valueOf(buffer.readByte());
-        forestDensity = buffer.readFloat();
-        forestWeirdness = buffer.readFloat();
-        plateTectonicsInfo = PlateTectonicsClassification.valueOf(buffer.readByte());
+        int chunkX = 0, chunkZ = 0;
+
+        final int unwatchedSize = buffer.readVarInt();
+        unwatched = new LongArrayList(unwatchedSize);
+        for (int i = 0; i < unwatchedSize; i++)
+        {
+            chunkX += Helpers.readSignedVarInt(buffer);
+            chunkZ += Helpers.readSignedVarInt(buffer);
+            unwatched.add(ChunkPos.asLong(chunkX, chunkZ));
+        }
+
+        chunkX = chunkZ = 0;
+
+        final int watchedSize = buffer.readVarInt();
+        watched = new ArrayList<>(watchedSize);
+        for (int i = 0; i < watchedSize; i++)
+        {
+            chunkX += Helpers.readSignedVarInt(buffer);
+            chunkZ += Helpers.readSignedVarInt(buffer);
+            watched.add(new Entry(
+                chunkX,
+                chunkZ,
+                Helpers.decodeNullable(buffer, LerpFloatLayer::decodeQuantized),
+                Helpers.decodeNullable(buffer, LerpFloatLayer::decodeQuantized),
+                ForestType.valueOf(buffer.readByte()),
+                buffer.readUnsignedShort() / FOREST_SCALE,
+                buffer.readUnsignedShort() / FOREST_SCALE,
+                PlateTectonicsClassification.valueOf(buffer.readByte())
+            ));
+        }
     }
 
-    void encode(FriendlyByteBuf buffer)
+    public void encode(FriendlyByteBuf buffer)
     {
-        buffer.writeVarInt(chunkX);
-        buffer.writeVarInt(chunkZ);
-        Helpers.encodeNullable(rainfallLayer, buffer, LerpFloatLayer::encode);
-        Helpers.encodeNullable(temperatureLayer, buffer, LerpFloatLayer::encode);
-        buffer.writeByte(forestType.ordinal());
-        buffer.writeFloat(forestDensity);
-        buffer.writeFloat(forestWeirdness);
-        buffer.writeByte(plateTectonicsInfo.ordinal());
+        int chunkX = 0, chunkZ = 0;
+
+        buffer.writeVarInt(unwatched.size());
+        for (int i = 0; i < unwatched.size(); i++)
+        {
+            final long pos = unwatched.getLong(i);
+            final int x = ChunkPos.getX(pos), z = ChunkPos.getZ(pos);
+            Helpers.writeSignedVarInt(buffer, x - chunkX);
+            Helpers.writeSignedVarInt(buffer, z - chunkZ);
+            chunkX = x;
+            chunkZ = z;
+        }
+
+        chunkX = chunkZ = 0;
+
+        buffer.writeVarInt(watched.size());
+        for (Entry entry : watched)
+        {
+            Helpers.writeSignedVarInt(buffer, entry.chunkX - chunkX);
+            Helpers.writeSignedVarInt(buffer, entry.chunkZ - chunkZ);
+            chunkX = entry.chunkX;
+            chunkZ = entry.chunkZ;
+
+            Helpers.encodeNullable(entry.rainfallLayer, buffer, LerpFloatLayer::encodeQuantized);
+            Helpers.encodeNullable(entry.temperatureLayer, buffer, LerpFloatLayer::encodeQuantized);
+            buffer.writeByte(entry.forestType.ordinal());
+            buffer.writeShort(Math.round(Mth.clamp(entry.forestDensity, 0, 1) * FOREST_SCALE));
+            buffer.writeShort(Math.round(Mth.clamp(entry.forestWeirdness, 0, 1) * FOREST_SCALE));
+            buffer.writeByte(entry.plateTectonicsInfo.ordinal());
+        }
+    }
+
+    public LongList getUnwatched()
+    {
+        return unwatched;
+    }
+
+    public List<Entry> getWatched()
+    {
+        return watched;
     }
 
     void handle(NetworkEvent.Context context)
     {
         context.enqueueWork(() -> {
-            ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+            // Positions are never both watched and unwatched in the same packet, so the order here does not matter
+            for (int i = 0; i < unwatched.size(); i++)
+            {
+                ChunkDataCache.CLIENT.remove(unwatched.getLong(i));
+            }
+
             // Update client-side chunk data capability
             Level world = ClientHelpers.getLevel();
             if (world != null)
             {
-                // First, synchronize the chunk data in the capability and cache.
-                // Then, update the single data instance with the packet data
-                ChunkAccess chunk = world.hasChunk(chunkX, chunkZ) ? world.getChunk(chunkX, chunkZ) : null;
-                ChunkData data = ChunkData.getCapability(chunk)
-                    .map(dataIn -> {
-                        ChunkDataCache.CLIENT.update(pos, dataIn);
-                        return dataIn;
-                    }).orElseGet(() -> ChunkDataCache.CLIENT.computeIfAbsent(pos, ChunkData::createClient));
-                data.onUpdatePacket(rainfallLayer, temperatureLayer, forestType, forestDensity, forestWeirdness, plateTectonicsInfo);
+                for (Entry entry : watched)
+                {
+                    // First, synchronize the chunk data in the capability and cache.
+                    // Then, update the single data instance with the packet data
+                    ChunkPos pos = new ChunkPos(entry.chunkX, entry.chunkZ);
+                    ChunkAccess chunk = world.hasChunk(entry.chunkX, entry.chunkZ) ? world.getChunk(entry.chunkX, entry.chunkZ) : null;
+                    ChunkData data = ChunkData.getCapability(chunk)
+                        .map(dataIn -> {
+                            ChunkDataCache.CLIENT.update(pos, dataIn);
+                            return dataIn;
+                        }).orElseGet(() -> ChunkDataCache.CLIENT.computeIfAbsent(pos, ChunkData::createClient));
+                    data.onUpdatePacket(entry.rainfallLayer, entry.temperatureLayer, entry.forestType, entry.forestDensity, entry.forestWeirdness, entry.plateTectonicsInfo);
+                }
             }
         });
     }
-}
\ No newline at end of file
+
+    public record Entry(int chunkX, int chunkZ, @Nullable LerpFloatLayer rainfallLayer, @Nullable LerpFloatLayer temperatureLayer, ForestType forestType, float forestDensity, float forestWeirdness, PlateTectonicsClassification plateTectonicsInfo) {}
+}
@@ -196,6 +196,8 @@ public final class Helpers
      * This method will try and determine the stack size, by inserting a maximum size stack... which means i.e. if you try and insert a stack of 16 x empty molds, you will discover they don't, in fact, have a heat capability and as a result cannot be heated.
      * <p>
      * N.B. The requirement that item stack capabilities only return a capability with stack size == 1 is essential to prevent duplication glitches or other inaccuracies in other, external code that isn't aware of the intricacies of how our capabilities work.
+     * <p>
+     * This copies the stack, which is expensive, so frequently queried checks should use {@link net.dries007.tfc.common.capabilities.ItemCapabilityIndex} instead.
      */
     public static <T> boolean mightHaveCapability(ItemStack stack, Capability<T> capability)
     {
@@ -1018,6 +1020,20 @@ public final class Helpers
         return null;
     }
 
+    /**
+     * Writes a var int, zig zag encoded so that small negative values are as short as small positive ones.
+     */
+    public static void writeSignedVarInt(FriendlyByteBuf buffer, int value)
+    {
+        buffer.writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public static int readSignedVarInt(FriendlyByteBuf buffer)
+    {
+        final int value = buffer.readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
     /**
      * @see net.minecraft.core.QuartPos#toBlock(int)
      */
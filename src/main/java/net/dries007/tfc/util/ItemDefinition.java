@@ -42,6 +42,14 @@ public class ItemDefinition
         return ingredient.test(stack);
     }
 
+    /**
+     * @return {@code true} if this definition matches by item alone, meaning every (non-empty) stack of one of {@link #getValidItems()} will match. Ingredients which may check NBT, or anything else about the stack, are conservatively assumed not to.
+     */
+    public boolean matchesByItemOnly()
+    {
+        return ingredient.getClass() == Ingredient.class;
+    }
+
     public Collection<Item> getValidItems()
     {
         return Arrays.stream(ingredient.getItems()).map(ItemStack::getItem).collect(Collectors.toSet());
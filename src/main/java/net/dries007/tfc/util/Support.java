@@ -6,8 +6,8 @@
 
 package net.dries007.tfc.util;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.BitSet;
+import java.util.Collection;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 import net.minecraft.core.BlockPos;
@@ -19,6 +19,10 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 import org.jetbrains.annotations.Nullable;
 
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredient;
 import net.dries007.tfc.common.recipes.ingredients.BlockIngredients;
 import net.dries007.tfc.network.DataManagerSyncPacket;
@@ -36,38 +40,69 @@ public final class Support
 
     /**
      * Finds all unsupported positions in a large area. It's more efficient than checking each block individually and calling {@link Support#isSupported(BlockGetter, BlockPos)}
+     * Each block in the area, inflated by the maximum support range, is read once, and each distinct state is only matched against supports once. Which positions are supported is tracked in a dense bit set over the area.
+     *
+     * @return The unsupported positions, packed with {@link BlockPos#asLong(int, int, int)}, in order of y, then z, then x.
      */
-    public static Set<BlockPos> findUnsupportedPositions(BlockGetter worldIn, BlockPos from, BlockPos to)
-    {
-        Set<BlockPos> listSupported = new HashSet<>();
-        Set<BlockPos> listUnsupported = new HashSet<>();
-        int minX = Math.min(from.getX(), to.getX());
-        int maxX = Math.max(from.getX(), to.getX());
-        int minY = Math.min(from.getY(), to.getY());
-        int maxY = Math.max(from.getY(), to.getY());
-        int minZ = Math.min(from.getZ(), to.getZ());
-        int maxZ = Math.max(from.getZ(), to.getZ());
-        for (BlockPos searchingPoint : getMaximumSupportedAreaAround(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ)))
+    public static LongList findUnsupportedPositions(BlockGetter level, BlockPos from, BlockPos to)
+    {
+        final int minX = Math.min(from.getX(), to.getX()), maxX = Math.max(from.getX(), to.getX());
+        final int minY = Math.min(from.getY(), to.getY()), maxY = Math.max(from.getY(), to.getY());
+        final int minZ = Math.min(from.getZ(), to.getZ()), maxZ = Math.max(from.getZ(), to.getZ());
+        final int sizeX = maxX - minX + 1, sizeZ = maxZ - minZ + 1;
+
+        final SupportRange range = RANGE;
+        final BitSet supported = new BitSet(sizeX * sizeZ * (maxY - minY + 1)); // Indexed by (x, z, y) relative to the minimum, x fastest
+        final Reference2ObjectMap<BlockState, Support> supportsByState = new Reference2ObjectOpenHashMap<>();
+        final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+        // Searching points are outside the area, up to the maximum support range, for supports which reach into it
+        for (int y = minY - range.down(); y <= maxY + range.up(); y++)
         {
-            if (!listSupported.contains(searchingPoint))
+            for (int z = minZ - range.horizontal(); z <= maxZ + range.horizontal(); z++)
             {
-                listUnsupported.add(searchingPoint.immutable()); // Adding blocks that wasn't found supported
+                for (int x = minX - range.horizontal(); x <= maxX + range.horizontal(); x++)
+                {
+                    final BlockState state = level.getBlockState(cursor.set(x, y, z));
+                    Support support = supportsByState.get(state);
+                    if (support == null && !supportsByState.containsKey(state))
+                    {
+                        support = get(state);
+                        supportsByState.put(state, support);
+                    }
+                    if (support != null)
+                    {
+                        // Mark the supported area of this support, clamped to the area, one row of x at a time
+                        final int fromX = Math.max(x - support.supportHorizontal, minX), toX = Math.min(x + support.supportHorizontal, maxX);
+                        if (fromX <= toX)
+                        {
+                            for (int supportedY = Math.max(y - support.supportDown, minY); supportedY <= Math.min(y + support.supportUp, maxY); supportedY++)
+                            {
+                                for (int supportedZ = Math.max(z - support.supportHorizontal, minZ); supportedZ <= Math.min(z + support.supportHorizontal, maxZ); supportedZ++)
+                                {
+                                    final int row = sizeX * ((supportedZ - minZ) + sizeZ * (supportedY - minY));
+                                    supported.set(row + fromX - minX, row + toX - minX + 1);
+                                }
+                            }
+                        }
+                    }
+                }
             }
-            final BlockState supportState = worldIn.getBlockState(searchingPoint);
-            final Support support = get(supportState);
-            if (support != null)
+        }
+
+        final LongList unsupported = new LongArrayList();
+        for (int y = minY; y <= maxY; y++)
+        {
+            for (int z = minZ; z <= maxZ; z++)
             {
-                for (BlockPos supported : support.getSupportedArea(searchingPoint))
+                final int row = sizeX * ((z - minZ) + sizeZ * (y - minY));
+                for (int index = supported.nextClearBit(row); index < row + sizeX; index = supported.nextClearBit(index + 1))
                 {
-                    listSupported.add(supported.immutable()); // Adding all supported blocks by this support
-                    listUnsupported.remove(supported); // Remove if this block was added earlier
+                    unsupported.add(BlockPos.asLong(minX + index - row, y, z));
                 }
             }
         }
-        // Searching point wasn't from points between from <-> to but
-        // Time to remove the outsides that were added for convenience
-        listUnsupported.removeIf(content -> content.getX() < minX || content.getX() > maxX || content.getY() < minY || content.getY() > maxY || content.getZ() < minZ || content.getZ() > maxZ);
-        return listUnsupported;
+        return unsupported;
     }
 
     public static boolean isSupported(BlockGetter world, BlockPos pos)
@@ -103,10 +138,15 @@ public final class Support
     }
 
     public static void updateMaximumSupportRange()
+    {
+        updateMaximumSupportRange(MANAGER.getValues());
+    }
+
+    public static void updateMaximumSupportRange(Collection<Support> supports)
     {
         // Re-calculate maximum support range
         int up = 0, down = 0, horizontal = 0;
-        for (Support support : MANAGER.getValues())
+        for (Support support : supports)
         {
             up = Math.max(support.getSupportUp(), up);
             down = Math.max(support.getSupportDown(), down);
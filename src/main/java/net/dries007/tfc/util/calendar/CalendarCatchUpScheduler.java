@@ -0,0 +1,141 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.calendar;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+
+/**
+ * Spreads the work of {@link ICalendarTickable}s catching up after a calendar skip across multiple ticks.
+ * After a large skip (sleeping, or when a chunk full of crops loads), every calendar tickable will want to catch up at once, which can cause a lag spike. Instead, they are queued here, grouped by chunk, and processed in order until a per-tick time budget is spent.
+ * <p>
+ * A calendar tickable with a pending update keeps its last update tick, and does not run its regular tick logic (see {@link ICalendarTickable#checkForCalendarUpdate()}), until the update is processed. The update then covers every tick since the last update tick, including the ticks spent waiting, so the result is the same as if it had been processed immediately.
+ * Only calendar tickables which {@link ICalendarTickable#canDeferCalendarUpdate() allow it} are deferred.
+ * If a chunk unloads with updates still pending, they are simply dropped, as the skip is detected again from the saved last update tick when the chunk next loads.
+ */
+public class CalendarCatchUpScheduler
+{
+    private final Long2ObjectLinkedOpenHashMap<List<ICalendarTickable>> pendingByChunk = new Long2ObjectLinkedOpenHashMap<>();
+    private final ReferenceOpenHashSet<ICalendarTickable> pendingEntities = new ReferenceOpenHashSet<>();
+    private int maxPending;
+    private long processed;
+
+    /**
+     * Schedules an update for a calendar tickable, if it does not already have one pending.
+     */
+    public void schedule(ICalendarTickable entity)
+    {
+        if (pendingEntities.add(entity))
+        {
+            final long chunk = ChunkPos.asLong(((BlockEntity) entity).getBlockPos());
+            pendingByChunk.computeIfAbsent(chunk, key -> new ArrayList<>()).add(entity);
+            maxPending = Math.max(maxPending, pendingEntities.size());
+        }
+    }
+
+    /**
+     * Processes pending updates, one chunk at a time, until the time budget for this tick is spent. At least one update is always processed, so the backlog always makes progress.
+     * Called at the start of the level tick, before any calendar tickables are ticked.
+     *
+     * @param currentTick The current calendar tick. Updates cover every tick up to, but not including, this one, as calendar tickables will run their regular tick logic for this tick afterwards.
+     * @param budget      The time budget, in nanoseconds.
+     */
+    @SuppressWarnings("deprecation")
+    public void tick(ProfilerFiller profiler, long currentTick, long budget)
+    {
+        if (pendingByChunk.isEmpty())
+        {
+            return;
+        }
+
+        profiler.push("tfc_calendar_catch_up");
+        final long start = System.nanoTime();
+        while (!pendingByChunk.isEmpty())
+        {
+            final List<ICalendarTickable> entities = pendingByChunk.get(pendingByChunk.firstLongKey());
+            int index = 0;
+            while (index < entities.size())
+            {
+                final ICalendarTickable entity = entities.get(index++);
+                pendingEntities.remove(entity);
+                final long ticks = currentTick - 1 - entity.getLastUpdateTick();
+                if (ticks > 0 && !((BlockEntity) entity).isRemoved()) // Not positive if the calendar tickable has already caught up, e.g. if the scheduler was disabled while it was pending
+                {
+                    ICalendarTickable.update(entity, ticks, profiler);
+                    entity.setLastUpdateTick(currentTick - 1);
+                }
+                processed++;
+                if (System.nanoTime() - start >= budget)
+                {
+                    break;
+                }
+            }
+
+            if (index < entities.size())
+            {
+                entities.subList(0, index).clear(); // Out of time partway through this chunk
+                break;
+            }
+            pendingByChunk.removeFirst();
+            if (System.nanoTime() - start >= budget)
+            {
+                break;
+            }
+        }
+        profiler.pop();
+    }
+
+    /**
+     * Called before a chunk is unloaded. Any pending updates in the chunk are dropped, to be detected again when the chunk next loads.
+     */
+    public void removePending(ChunkPos pos)
+    {
+        final List<ICalendarTickable> entities = pendingByChunk.remove(pos.toLong());
+        if (entities != null)
+        {
+            entities.forEach(pendingEntities::remove);
+        }
+    }
+
+    /**
+     * @return The number of updates waiting to be processed.
+     */
+    public int getPending()
+    {
+        return pendingEntities.size();
+    }
+
+    /**
+     * @return The number of chunks with updates waiting to be processed.
+     */
+    public int getPendingChunks()
+    {
+        return pendingByChunk.size();
+    }
+
+    /**
+     * @return The largest number of updates that have been waiting at once.
+     */
+    public int getMaxPending()
+    {
+        return maxPending;
+    }
+
+    /**
+     * @return The total number of updates processed.
+     */
+    public long getProcessed()
+    {
+        return processed;
+    }
+}
@@ -10,20 +10,26 @@ import java.util.List;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ChunkHolder;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerWakeUpEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
 import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 
 import com.mojang.logging.LogUtils;
 import net.dries007.tfc.common.capabilities.food.TFCFoodData;
 import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
 import org.slf4j.Logger;
 
 /**
@@ -41,6 +47,8 @@ public class CalendarEventHandler
 
         bus.addListener(CalendarEventHandler::onServerStart);
         bus.addListener(CalendarEventHandler::onServerStop);
+        bus.addListener(CalendarEventHandler::onChunkUnload);
+        bus.addListener(CalendarEventHandler::onWorldSave);
         bus.addListener(CalendarEventHandler::onServerTick);
         bus.addListener(CalendarEventHandler::onOverworldTick);
         bus.addListener(CalendarEventHandler::onPlayerWakeUp);
@@ -58,6 +66,41 @@ public class CalendarEventHandler
         Calendars.SERVER.onServerStop();
     }
 
+    /**
+     * Fired before the chunk is saved for the last time, when it unloads.
+     *
+     * @see #onWorldSave(WorldEvent.Save)
+     */
+    public static void onChunkUnload(ChunkEvent.Unload event)
+    {
+        if (event.getChunk() instanceof LevelChunk chunk && !chunk.getLevel().isClientSide())
+        {
+            chunk.getLevel().getCapability(WorldTrackerCapability.CAPABILITY).ifPresent(tracker -> tracker.getCalendarCatchUpScheduler().removePending(chunk.getPos()));
+            markCalendarTickablesUnsaved(chunk);
+        }
+    }
+
+    /**
+     * Fired before all chunks in a level are saved, both on autosave and when the server stops.
+     * Calendar tickables don't mark themselves dirty every tick, so make sure their last update tick is saved.
+     *
+     * @see ICalendarTickable
+     */
+    public static void onWorldSave(WorldEvent.Save event)
+    {
+        if (event.getWorld() instanceof ServerLevel level)
+        {
+            for (ChunkHolder holder : level.getChunkSource().chunkMap.getChunks())
+            {
+                final LevelChunk chunk = holder.getFullChunk();
+                if (chunk != null)
+                {
+                    markCalendarTickablesUnsaved(chunk);
+                }
+            }
+        }
+    }
+
     /**
      * Called from LOGICAL SERVER
      * Responsible for primary time tracking for player time
@@ -148,4 +191,16 @@ public class CalendarEventHandler
             }
         }
     }
-}
\ No newline at end of file
+
+    private static void markCalendarTickablesUnsaved(LevelChunk chunk)
+    {
+        for (BlockEntity entity : chunk.getBlockEntities().values())
+        {
+            if (entity instanceof ICalendarTickable)
+            {
+                chunk.setUnsaved(true);
+                return;
+            }
+        }
+    }
+}
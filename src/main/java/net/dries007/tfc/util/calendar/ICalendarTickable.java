@@ -6,37 +6,110 @@
 
 package net.dries007.tfc.util.calendar;
 
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 
+import net.dries007.tfc.config.TFCConfig;
+import net.dries007.tfc.util.tracker.WorldTracker;
+import net.dries007.tfc.util.tracker.WorldTrackerCapability;
+import org.jetbrains.annotations.Nullable;
+
 /**
  * This is implemented on {@link BlockEntity}s that need to receive special updates when the calendar skips/jumps ahead.
  * In order to implement this, a field `lastUpdateTick` should be added and serialized. Nothing else should access this field, or the provided accessors. Doing so is almost certainly a bug, as this field just represents the last tick the block entity has been actively ticked.
  * The default value of this field should be initialized to {@link Integer#MIN_VALUE}.
  * <p>
+ * The block entity is <strong>not</strong> marked dirty every tick just to advance {@code lastUpdateTick}, as {@link BlockEntity#setChanged()} is not free. Instead, the chunk containing it is marked unsaved right before each save of the level, and before it is saved for the last time when it unloads (see {@link CalendarEventHandler}). So the persisted {@code lastUpdateTick} is always the last tick the block entity was actively ticked as of that save.
+ * <p>
  * Note: the default {@link #checkForCalendarUpdate()} casts the implementor to {@link BlockEntity}.
  */
 public interface ICalendarTickable
 {
     /**
-     * Here we check every tick for a calendar discrepancy. This only checks for differences in player time, and calls {@link ICalendarTickable#onCalendarUpdate(long playerTickDelta)} as necessary.
+     * The total number of calendar skips, i.e. calls to {@link #onCalendarUpdate(long)}, processed by all calendar tickables.
+     */
+    LongAdder CALENDAR_UPDATES = new LongAdder();
+
+    /**
+     * Here we check every tick for a calendar discrepancy. This only checks for differences in player time, and calls {@link ICalendarTickable#onCalendarUpdate(long playerTickDelta)} as necessary, possibly deferred to a later tick via the {@link CalendarCatchUpScheduler}.
      * <p>
-     * Implementations MUST call {@code checkForCalendarUpdate()} in their {@code serverTick} method.
+     * Implementations MUST call {@code checkForCalendarUpdate()} in their {@code serverTick} method, before any other tick logic, and MUST skip the rest of their tick logic if it returns {@code false}.
+     *
+     * @return {@code true} if the block entity is up to date with the calendar, or {@code false} if it has an update waiting in the {@link CalendarCatchUpScheduler}.
      */
-    default void checkForCalendarUpdate()
+    default boolean checkForCalendarUpdate()
     {
-        final BlockEntity entity = ((BlockEntity) this);
-        if (entity.getLevel() != null && !entity.getLevel().isClientSide())
+        final Level level = ((BlockEntity) this).getLevel();
+        if (level != null && !level.isClientSide())
         {
-            final long thisTick = Calendars.SERVER.getTicks();
-            final long lastTick = getLastUpdateTick();
-            final long tickDelta = thisTick - lastTick;
-            if (lastTick != Integer.MIN_VALUE && tickDelta != 1)
-            {
-                onCalendarUpdate(tickDelta - 1);
-            }
-            setLastUpdateTick(thisTick);
-            markDirty();
+            return checkForCalendarUpdate(this, Calendars.SERVER.getTicks(), ICalendarTickable::getCatchUpScheduler, level.getProfiler());
         }
+        return true;
+    }
+
+    /**
+     * The implementation of {@link #checkForCalendarUpdate()}, independent of the level and calendar.
+     *
+     * @param thisTick   The current calendar tick.
+     * @param schedulers Provides the scheduler for a calendar tickable, or {@code null} if its updates should be processed immediately. Only called on a calendar skip.
+     */
+    @SuppressWarnings("deprecation")
+    static boolean checkForCalendarUpdate(ICalendarTickable entity, long thisTick, Function<ICalendarTickable, CalendarCatchUpScheduler> schedulers, ProfilerFiller profiler)
+    {
+        final long lastTick = entity.getLastUpdateTick();
+        if (lastTick == Integer.MIN_VALUE)
+        {
+            entity.setLastUpdateTick(thisTick);
+            entity.markDirty(); // First tick, so the initial value is saved
+            return true;
+        }
+        if (thisTick - lastTick <= 1)
+        {
+            // Regular tick, don't mark dirty. A delta of zero means the calendar is paused (no players are logged on) while chunks still tick
+            entity.setLastUpdateTick(thisTick);
+            return true;
+        }
+        return catchUp(entity, thisTick, entity.canDeferCalendarUpdate() ? schedulers.apply(entity) : null, profiler);
+    }
+
+    /**
+     * Handles a calendar skip, either immediately, or by scheduling it. A scheduled calendar tickable keeps its last update tick until the update is processed, so the skip is detected again on each tick it has to wait.
+     *
+     * @param scheduler The scheduler, or {@code null} if the update should be processed immediately.
+     * @return {@code true} if the update was processed immediately, {@code false} if it was scheduled.
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean catchUp(ICalendarTickable entity, long thisTick, @Nullable CalendarCatchUpScheduler scheduler, ProfilerFiller profiler)
+    {
+        if (scheduler != null)
+        {
+            scheduler.schedule(entity);
+            return false;
+        }
+        update(entity, thisTick - entity.getLastUpdateTick() - 1, profiler);
+        entity.setLastUpdateTick(thisTick);
+        return true;
+    }
+
+    @Nullable
+    private static CalendarCatchUpScheduler getCatchUpScheduler(ICalendarTickable entity)
+    {
+        final Level level = ((BlockEntity) entity).getLevel();
+        return level != null && TFCConfig.SERVER.calendarCatchUpBudget.get() > 0 ? level.getCapability(WorldTrackerCapability.CAPABILITY).map(WorldTracker::getCalendarCatchUpScheduler).orElse(null) : null;
+    }
+
+    /**
+     * Processes a calendar skip, either immediately, or deferred by the {@link CalendarCatchUpScheduler}.
+     */
+    static void update(ICalendarTickable entity, long ticks, ProfilerFiller profiler)
+    {
+        profiler.incrementCounter("tfc_calendar_update");
+        CALENDAR_UPDATES.increment();
+        entity.onCalendarUpdate(ticks);
+        entity.markDirty();
     }
 
     /**
@@ -46,6 +119,15 @@ public interface ICalendarTickable
      */
     void onCalendarUpdate(long ticks);
 
+    /**
+     * If calendar updates of this block entity may be deferred by the {@link CalendarCatchUpScheduler}. This is only safe if nothing else can observe or modify the block entity's state before it catches up, or if its catch up is computed purely from its own timestamps (like crops and berry bushes).
+     * Devices which players, hoppers, or redstone can interact with (e.g. unsealing a barrel) must catch up immediately, as an interaction before the deferred update would act on contents that have not caught up.
+     */
+    default boolean canDeferCalendarUpdate()
+    {
+        return false;
+    }
+
     /**
      * @return The last tick this {@code BlockEntity} was ticked.
      * @deprecated Do not call.
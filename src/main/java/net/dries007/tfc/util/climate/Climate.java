@@ -184,10 +184,25 @@ public final class Climate
         return ((BiomeAccessor) (Object) fallback).invoke$getTemperature(pos);
     }
 
+    /**
+     * The model is resolved from the {@link WorldTracker} once, and then held on the level directly, as this is queried very frequently.
+     * It is invalidated whenever the world tracker's model changes, which happens via {@link SelectClimateModelEvent} on the server, and when synced to the client.
+     */
     public static ClimateModel model(Level level)
     {
-        return level.getCapability(WorldTrackerCapability.CAPABILITY)
-            .map(WorldTracker::getClimateModel)
-            .orElse(ClimateModels.BIOME_BASED.get().create());
+        final LevelBridge bridge = (LevelBridge) level;
+        ClimateModel model = bridge.tfc$getClimateModel();
+        if (model == null)
+        {
+            final WorldTracker tracker = level.getCapability(WorldTrackerCapability.CAPABILITY).resolve().orElse(null);
+            if (tracker == null)
+            {
+                // Capabilities may not be attached yet, so don't hold on to this
+                return BiomeBasedClimateModel.INSTANCE;
+            }
+            model = tracker.getClimateModel();
+            bridge.tfc$setClimateModel(model);
+        }
+        return model;
     }
 }
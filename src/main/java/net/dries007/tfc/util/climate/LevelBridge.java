@@ -0,0 +1,28 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.climate;
+
+import net.minecraft.world.level.Level;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The bridge interface for levels, allowing them to hold their resolved climate model directly.
+ * Do not call directly.
+ *
+ * @see Climate#model(Level)
+ */
+public interface LevelBridge
+{
+    @Nullable
+    ClimateModel tfc$getClimateModel();
+
+    /**
+     * @param model The resolved climate model, or {@code null} to invalidate it.
+     */
+    void tfc$setClimateModel(@Nullable ClimateModel model);
+}
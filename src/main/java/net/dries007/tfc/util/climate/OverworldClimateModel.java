@@ -7,6 +7,8 @@
 package net.dries007.tfc.util.climate;
 
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.network.FriendlyByteBuf;
@@ -24,6 +26,7 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.material.Fluids;
+import it.unimi.dsi.fastutil.HashCommon;
 import org.jetbrains.annotations.Nullable;
 
 import net.dries007.tfc.common.blocks.IcePileBlock;
@@ -80,6 +83,8 @@ public class OverworldClimateModel implements WorldGenClimateModel
     public static final float FOGGY_RAINFALL_MINIMUM = 150f;
     public static final float FOGGY_RAINFALL_PEAK = 300f;
 
+    private static final int TIME_SAMPLE_CACHE_SIZE = 64; // Power of two
+
     @Override
     public ClimateModelType type()
     {
@@ -112,6 +117,11 @@ public class OverworldClimateModel implements WorldGenClimateModel
     private Noise2D snowPatchNoise = (x, z) -> 0;
     private Noise2D icePatchNoise = (x, z) -> 0;
 
+    // Memoized time dependent temperature components, as many positions (i.e. crops) query temperature at the same calendar tick
+    private final AtomicReferenceArray<TimeSample> timeSamples = new AtomicReferenceArray<>(TIME_SAMPLE_CACHE_SIZE);
+    private final LongAdder timeSampleHits = new LongAdder();
+    private final LongAdder timeSampleMisses = new LongAdder();
+
     /**
      * Calculates the average monthly temperature for a location and given month.
      */
@@ -124,15 +134,20 @@ public class OverworldClimateModel implements WorldGenClimateModel
     @Override
     public float getTemperature(@Nullable LevelReader level, BlockPos pos, ChunkData data, long calendarTicks, int daysInMonth)
     {
-        // Month temperature
-        final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
-        final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
-        final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+        final TimeSample sample = sampleTime(calendarTicks, daysInMonth);
+        final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), sample.monthFactor);
 
-        final float monthTemperature = calculateMonthlyTemperature(pos.getZ(), monthFactor);
-        final float dailyTemperature = calculateDailyTemperature(calendarTicks);
+        return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, sample.dailyTemperature);
+    }
 
-        return adjustTemperatureByElevation(pos.getY(), data.getAverageTemp(pos), monthTemperature, dailyTemperature);
+    public long getTimeSampleHits()
+    {
+        return timeSampleHits.sum();
+    }
+
+    public long getTimeSampleMisses()
+    {
+        return timeSampleMisses.sum();
     }
 
     @Override
@@ -336,6 +351,32 @@ public class OverworldClimateModel implements WorldGenClimateModel
         this.icePatchNoise = new OpenSimplex2D(climateSeed + 192639412341L).octaves(3).spread(0.6f);
     }
 
+    /**
+     * Computes, or returns a memoized copy of, the components of temperature which only depend on time: the month factor, and the daily temperature.
+     * Entries are keyed on the exact calendar tick, so they never go stale when the calendar advances or jumps, and on the climate seed, which the daily temperature depends on.
+     */
+    protected TimeSample sampleTime(long calendarTicks, int daysInMonth)
+    {
+        final int index = (int) HashCommon.mix(calendarTicks) & (TIME_SAMPLE_CACHE_SIZE - 1);
+        final TimeSample cached = timeSamples.get(index);
+        if (cached != null && cached.calendarTicks == calendarTicks && cached.daysInMonth == daysInMonth && cached.climateSeed == climateSeed)
+        {
+            timeSampleHits.increment();
+            return cached;
+        }
+
+        timeSampleMisses.increment();
+
+        // Month temperature
+        final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
+        final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
+        final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+
+        final TimeSample sample = new TimeSample(calendarTicks, daysInMonth, climateSeed, monthFactor, calculateDailyTemperature(calendarTicks));
+        timeSamples.set(index, sample);
+        return sample;
+    }
+
     /**
      * Adjusts a series of temperature factors by elevation. Returns the sum temperature after adjustment.
      */
@@ -404,4 +445,6 @@ public class OverworldClimateModel implements WorldGenClimateModel
         seed = LinearCongruentialGenerator.next(seed, salt);
         return new Random(seed);
     }
+
+    protected record TimeSample(long calendarTicks, int daysInMonth, long climateSeed, float monthFactor, float dailyTemperature) {}
 }
@@ -35,10 +35,17 @@ public class IndirectHashCollection<K, R>
     private static final Map<IndirectHashCollection<?, ?>, Supplier<Collection<?>>> DIRECT_CACHES = new HashMap<>();
     private static final Map<IndirectHashCollection<?, ?>, Supplier<RecipeType<?>>> RECIPE_CACHES = new HashMap<>();
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public static <K, R> IndirectHashCollection<K, R> create(Function<R, Iterable<? extends K>> keyExtractor, Supplier<Collection<R>> reloadableCollection)
     {
-        final IndirectHashCollection<K, R> cache = new IndirectHashCollection<>(keyExtractor);
+        return register(new IndirectHashCollection<>(keyExtractor), reloadableCollection);
+    }
+
+    /**
+     * Registers a cache, which may be a subclass, to be reloaded from the given collection.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected static <K, R, C extends IndirectHashCollection<K, R>> C register(C cache, Supplier<Collection<R>> reloadableCollection)
+    {
         DIRECT_CACHES.put(cache, (Supplier) reloadableCollection);
         return cache;
     }
@@ -0,0 +1,106 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.util.collections;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMaps;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.dries007.tfc.util.ItemDefinition;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link IndirectHashCollection} of item definitions, which additionally resolves, on reload, the definition for each item wherever it does not depend on the stack.
+ * This is queried for every item stack created (through capability attachment), and in the common case, where the first candidate definition for an item matches by item alone, this is a single identity map lookup, rather than testing each candidate's ingredient.
+ */
+public class ItemDefinitionCache<T extends ItemDefinition> extends IndirectHashCollection<Item, T>
+{
+    private static final Object STACK_SENSITIVE = new Object(); // Marker for items which need each candidate to be tested against the stack
+
+    public static <T extends ItemDefinition> ItemDefinitionCache<T> create(Supplier<Collection<T>> reloadableCollection)
+    {
+        return register(new ItemDefinitionCache<>(), reloadableCollection);
+    }
+
+    private volatile Reference2ObjectMap<Item, Object> resolved = Reference2ObjectMaps.emptyMap(); // Replaced, not modified, on reload, as it may be read off thread
+
+    private final LongAdder fastResolutions = new LongAdder();
+    private final LongAdder slowResolutions = new LongAdder();
+
+    public ItemDefinitionCache()
+    {
+        super(ItemDefinition::getValidItems);
+    }
+
+    /**
+     * @return The first definition which matches the stack, or {@code null} if none do. Identical to testing each of {@link #getAll(Object)} in order.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T get(ItemStack stack)
+    {
+        final Item item = stack.getItem();
+        final Object result = resolved.get(item);
+        if (result != STACK_SENSITIVE)
+        {
+            fastResolutions.increment();
+            return (T) result;
+        }
+
+        slowResolutions.increment();
+        for (T def : getAll(item))
+        {
+            if (def.matches(stack))
+            {
+                return def;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void reload(Collection<T> values)
+    {
+        super.reload(values);
+
+        final Reference2ObjectMap<Item, Object> resolved = new Reference2ObjectOpenHashMap<>();
+        values.forEach(value -> {
+            for (Item item : value.getValidItems())
+            {
+                if (!resolved.containsKey(item))
+                {
+                    // The first candidate either always matches, or must be tested, in which case so must any after it
+                    final T first = getAll(item).iterator().next();
+                    resolved.put(item, first.matchesByItemOnly() ? first : STACK_SENSITIVE);
+                }
+            }
+        });
+        this.resolved = resolved;
+    }
+
+    /**
+     * @return The number of queries which were resolved by item alone.
+     */
+    public long getFastResolutions()
+    {
+        return fastResolutions.sum();
+    }
+
+    /**
+     * @return The number of queries which had to test candidates against the stack.
+     */
+    public long getSlowResolutions()
+    {
+        return slowResolutions.sum();
+    }
+}
@@ -28,6 +28,7 @@ import net.minecraftforge.network.PacketDistributor;
 
 import net.dries007.tfc.client.TFCSounds;
 import net.dries007.tfc.common.TFCTags;
+import net.dries007.tfc.common.blockentities.TFCBlockEntity;
 import net.dries007.tfc.common.entities.TFCFallingBlockEntity;
 import net.dries007.tfc.common.recipes.CollapseRecipe;
 import net.dries007.tfc.common.recipes.LandslideRecipe;
@@ -35,10 +36,12 @@ import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.network.RainfallUpdatePacket;
 import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.calendar.CalendarCatchUpScheduler;
 import net.dries007.tfc.util.calendar.Calendars;
 import net.dries007.tfc.util.climate.BiomeBasedClimateModel;
 import net.dries007.tfc.util.climate.Climate;
 import net.dries007.tfc.util.climate.ClimateModel;
+import net.dries007.tfc.util.climate.LevelBridge;
 import net.dries007.tfc.util.collections.BufferedList;
 import net.dries007.tfc.util.loot.TFCLoot;
 import org.jetbrains.annotations.NotNull;
@@ -53,6 +56,8 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     private final BufferedList<TickEntry> landslideTicks;
     private final BufferedList<BlockPos> isolatedPositions;
     private final List<Collapse> collapsesInProgress;
+    private final CalendarCatchUpScheduler calendarCatchUpScheduler;
+    private final List<TFCBlockEntity> pendingSyncs;
 
     private final ClimateModel defaultClimateModel = new BiomeBasedClimateModel();
     @Nullable private ClimateModel climateModel;
@@ -69,6 +74,8 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         this.landslideTicks = new BufferedList<>();
         this.isolatedPositions = new BufferedList<>();
         this.collapsesInProgress = new ArrayList<>();
+        this.calendarCatchUpScheduler = new CalendarCatchUpScheduler();
+        this.pendingSyncs = new ArrayList<>();
     }
 
     public void addLandslidePos(BlockPos pos)
@@ -89,6 +96,7 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
     public void setClimateModel(ClimateModel climateModel)
     {
         this.climateModel = climateModel;
+        ((LevelBridge) level).tfc$setClimateModel(null); // Invalidate the model held by the level
     }
 
     public ClimateModel getClimateModel()
@@ -96,6 +104,31 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
         return climateModel == null ? defaultClimateModel : climateModel;
     }
 
+    public CalendarCatchUpScheduler getCalendarCatchUpScheduler()
+    {
+        return calendarCatchUpScheduler;
+    }
+
+    /**
+     * @see TFCBlockEntity#markForBatchedSync()
+     */
+    public void addPendingSync(TFCBlockEntity entity)
+    {
+        pendingSyncs.add(entity);
+    }
+
+    /**
+     * Called at the end of each level tick, to send all batched block entity syncs.
+     */
+    public void sendPendingSyncs()
+    {
+        if (!pendingSyncs.isEmpty())
+        {
+            pendingSyncs.forEach(TFCBlockEntity::sendPendingSync);
+            pendingSyncs.clear();
+        }
+    }
+
     public void addCollapsePositions(BlockPos centerPos, Collection<BlockPos> positions)
     {
         List<BlockPos> collapsePositions = new ArrayList<>();
@@ -144,6 +177,8 @@ public class WorldTracker implements ICapabilitySerializable<CompoundTag>
 
     public void tick(ServerLevel level)
     {
+        calendarCatchUpScheduler.tick(level.getProfiler(), Calendars.SERVER.getTicks(), TFCConfig.SERVER.calendarCatchUpBudget.get() * 1_000_000L);
+
         if (!collapsesInProgress.isEmpty() && random.nextInt(10) == 0)
         {
             for (Collapse collapse : collapsesInProgress)
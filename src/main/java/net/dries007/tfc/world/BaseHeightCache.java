@@ -0,0 +1,121 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Arrays;
+
+import net.minecraft.core.SectionPos;
+
+/**
+ * A cache of base heights, used by structure placement and other height queries outside of noise filling.
+ * Heights are stored per chunk, but filled lazily one column at a time, as most queries (e.g. structure placement) only probe a handful of columns in each chunk. All columns sampled by a single query share one {@link ColumnSampler} for each chunk.
+ * <p>
+ * This is safe to use from multiple threads. Chunk arrays are published through a {@link FastConcurrentCache}, and two threads may both sample the same column, but heights are deterministic, so they both write the same value.
+ */
+public class BaseHeightCache
+{
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final FastConcurrentCache<int[]> cache;
+    private final Sampler<ColumnSampler> columnSamplers;
+
+    /**
+     * @param size           The maximum number of chunks to cache.
+     * @param columnSamplers Creates a sampler for columns in a chunk, by chunk x and z. This is only invoked when a query finds columns that have not been sampled yet.
+     */
+    public BaseHeightCache(int size, Sampler<ColumnSampler> columnSamplers)
+    {
+        this.cache = new FastConcurrentCache<>(size);
+        this.columnSamplers = columnSamplers;
+    }
+
+    /**
+     * @return The base height of a single column.
+     */
+    public int get(int blockX, int blockZ)
+    {
+        final int chunkX = SectionPos.blockToSectionCoord(blockX), chunkZ = SectionPos.blockToSectionCoord(blockZ);
+        final int[] chunkHeights = getOrCreate(chunkX, chunkZ);
+        final int index = (blockX & 15) + 16 * (blockZ & 15);
+        int height = chunkHeights[index];
+        if (height == UNKNOWN)
+        {
+            height = columnSamplers.get(chunkX, chunkZ).sample(blockX, blockZ);
+            chunkHeights[index] = height;
+        }
+        return height;
+    }
+
+    /**
+     * Samples the base height of an arbitrary rectangle of columns.
+     *
+     * @param minBlockX The minimum block X.
+     * @param minBlockZ The minimum block Z.
+     * @param width     The width of the rectangle, in the X direction.
+     * @param depth     The depth of the rectangle, in the Z direction.
+     * @return The base heights, indexed by {@code dx + width * dz}.
+     */
+    public int[] get(int minBlockX, int minBlockZ, int width, int depth)
+    {
+        final int[] heights = new int[width * depth];
+        final int maxBlockX = minBlockX + width - 1, maxBlockZ = minBlockZ + depth - 1;
+        for (int chunkX = SectionPos.blockToSectionCoord(minBlockX); chunkX <= SectionPos.blockToSectionCoord(maxBlockX); chunkX++)
+        {
+            for (int chunkZ = SectionPos.blockToSectionCoord(minBlockZ); chunkZ <= SectionPos.blockToSectionCoord(maxBlockZ); chunkZ++)
+            {
+                // Copy the overlap between this chunk and the target rectangle, sampling any missing columns
+                final int[] chunkHeights = getOrCreate(chunkX, chunkZ);
+                final int x0 = Math.max(minBlockX, chunkX << 4), x1 = Math.min(maxBlockX, (chunkX << 4) + 15);
+                final int z0 = Math.max(minBlockZ, chunkZ << 4), z1 = Math.min(maxBlockZ, (chunkZ << 4) + 15);
+                ColumnSampler sampler = null;
+                for (int z = z0; z <= z1; z++)
+                {
+                    for (int x = x0; x <= x1; x++)
+                    {
+                        final int index = (x & 15) + 16 * (z & 15);
+                        int height = chunkHeights[index];
+                        if (height == UNKNOWN)
+                        {
+                            if (sampler == null)
+                            {
+                                sampler = columnSamplers.get(chunkX, chunkZ);
+                            }
+                            height = sampler.sample(x, z);
+                            chunkHeights[index] = height;
+                        }
+                        heights[(x - minBlockX) + width * (z - minBlockZ)] = height;
+                    }
+                }
+            }
+        }
+        return heights;
+    }
+
+    /**
+     * @return The heights of all columns in a chunk, indexed by {@code localX + 16 * localZ}, where {@link #UNKNOWN} marks a column that has not been sampled yet.
+     */
+    private int[] getOrCreate(int chunkX, int chunkZ)
+    {
+        int[] chunkHeights = cache.getIfPresent(chunkX, chunkZ);
+        if (chunkHeights == null)
+        {
+            chunkHeights = new int[16 * 16];
+            Arrays.fill(chunkHeights, UNKNOWN);
+            cache.set(chunkX, chunkZ, chunkHeights);
+        }
+        return chunkHeights;
+    }
+
+    @FunctionalInterface
+    public interface ColumnSampler
+    {
+        /**
+         * @return The base height of a column in the chunk this sampler was created for.
+         */
+        int sample(int blockX, int blockZ);
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+import net.dries007.tfc.world.biome.BiomeExtension;
+
+/**
+ * A primitive map of {@link BiomeExtension} to weight, used for biome blending during world generation.
+ * Lookup is by {@link BiomeExtension#id()} into a dense slot table, and entries are stored packed in insertion order, so iteration only visits present biomes.
+ * Instances are mutable and reusable via {@link #clear()}, which (unlike a map) does not release or reallocate any storage.
+ */
+public final class BiomeWeights
+{
+    private final byte[] slots; // Index by id, 1 + index of the entry, or 0 if not present
+    private BiomeExtension[] biomes;
+    private double[] weights;
+    private int size;
+
+    public BiomeWeights()
+    {
+        this.slots = new byte[BiomeExtension.MAX_ID];
+        this.biomes = new BiomeExtension[8];
+        this.weights = new double[8];
+        this.size = 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public BiomeExtension biome(int index)
+    {
+        return biomes[index];
+    }
+
+    public double weight(int index)
+    {
+        return weights[index];
+    }
+
+    public double get(BiomeExtension biome, double orElse)
+    {
+        final int slot = slots[biome.id()];
+        return slot == 0 ? orElse : weights[slot - 1];
+    }
+
+    /**
+     * Adds {@code weight} to the existing weight of {@code biome}, or inserts it if not present.
+     */
+    public void add(BiomeExtension biome, double weight)
+    {
+        final int slot = slots[biome.id()];
+        if (slot == 0)
+        {
+            insert(biome, weight);
+        }
+        else
+        {
+            weights[slot - 1] += weight;
+        }
+    }
+
+    /**
+     * Adds every weight in {@code other}, scaled by {@code t}. This is used to interpolate between sampled weights at the corners of a grid.
+     */
+    public void addAll(BiomeWeights other, double t)
+    {
+        if (t > 0)
+        {
+            for (int i = 0; i < other.size; i++)
+            {
+                add(other.biomes[i], other.weights[i] * t);
+            }
+        }
+    }
+
+    public void copyFrom(BiomeWeights other)
+    {
+        clear();
+        for (int i = 0; i < other.size; i++)
+        {
+            insert(other.biomes[i], other.weights[i]);
+        }
+    }
+
+    public void clear()
+    {
+        for (int i = 0; i < size; i++)
+        {
+            slots[biomes[i].id()] = 0;
+            biomes[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Composes two levels of sampled weights. It takes two sets of weights of two different resolutions, and re-weights the higher resolution one (this) by replacing specific groups of samples with the respective weights from the lower resolution one.
+     * Each element of the higher resolution weights is replaced with a proportional average of the same group which is present in the lower resolution weights.
+     * This has the effect of blending specific groups at closer distances than others, allowing for both smooth and sharp biome transitions.
+     *
+     * Example:
+     * - Low resolution: 30% Plains, 40% Mountains, 30% Hills, 10% River
+     * - High resolution: 60% Plains, 40% River
+     * - Groups are "River" and "Not River"
+     * - For each element in the high resolution map:
+     * - 60% Plains: Group "Not River", and is replaced with 60% * (30% Plains, 40% Mountains, 30% Hills) / 90%
+     * - 50% River: Group "River", which is replaced with 40% * (10% River) / 10%
+     * - Result: 18% Plains, 24% Mountains, 18% Hills, 40% River
+     *
+     * @param groupWeights  The lower resolution weights.
+     * @param groupFunction Maps each biome to a group in [0, groups), or -1 if the biome should be left as-is.
+     * @param scratch       A scratch buffer of at least {@code 2 * groups} length.
+     */
+    public void compose(BiomeWeights groupWeights, ToIntFunction<BiomeExtension> groupFunction, int groups, double[] scratch)
+    {
+        // First, we need to calculate the maximum weight per group, stored in [0, groups)
+        Arrays.fill(scratch, 0, 2 * groups, 0);
+        for (int i = 0; i < groupWeights.size; i++)
+        {
+            final int group = groupFunction.applyAsInt(groupWeights.biomes[i]);
+            if (group != -1)
+            {
+                scratch[group] += groupWeights.weights[i];
+            }
+        }
+
+        // Then, we iterate through this and identify the actual weight that needs to be replaced with each group, stored in [groups, 2 * groups)
+        // Grouped entries are removed, and the remaining entries compacted in place, retaining their order
+        int kept = 0;
+        for (int i = 0; i < size; i++)
+        {
+            final BiomeExtension biome = biomes[i];
+            final int group = groupFunction.applyAsInt(biome);
+            if (group != -1)
+            {
+                scratch[groups + group] += weights[i];
+                slots[biome.id()] = 0;
+            }
+            else
+            {
+                biomes[kept] = biome;
+                weights[kept] = weights[i];
+                slots[biome.id()] = (byte) (kept + 1);
+                kept++;
+            }
+        }
+        Arrays.fill(biomes, kept, size, null);
+        size = kept;
+
+        // Finally, insert the weights for each group as a portion of the actual weight
+        for (int i = 0; i < groupWeights.size; i++)
+        {
+            final int group = groupFunction.applyAsInt(groupWeights.biomes[i]);
+            if (group != -1 && scratch[groups + group] > 0 && scratch[group] > 0)
+            {
+                insert(groupWeights.biomes[i], groupWeights.weights[i] * scratch[groups + group] / scratch[group]);
+            }
+        }
+    }
+
+    private void insert(BiomeExtension biome, double weight)
+    {
+        if (size == biomes.length)
+        {
+            biomes = Arrays.copyOf(biomes, size << 1);
+            weights = Arrays.copyOf(weights, size << 1);
+        }
+        biomes[size] = biome;
+        weights[size] = weight;
+        slots[biome.id()] = (byte) (++size);
+    }
+}
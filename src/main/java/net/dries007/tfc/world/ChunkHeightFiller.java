@@ -6,14 +6,10 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Map;
-
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.LevelHeightAccessor;
 import net.minecraft.world.level.levelgen.Heightmap;
 
-import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
-import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import net.dries007.tfc.world.biome.BiomeExtension;
 
 /**
@@ -22,18 +18,18 @@ import net.dries007.tfc.world.biome.BiomeExtension;
  */
 public class ChunkHeightFiller
 {
-    protected final Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers; // Biome -> Noise Samplers
-    protected final Object2DoubleMap<BiomeNoiseSampler> columnBiomeNoiseSamplers; // Per column weighted map of biome noises samplers
+    protected final BiomeNoiseSampler[] biomeNoiseSamplers; // Biome id -> Noise Samplers
 
-    protected final Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
-    protected final Object2DoubleMap<BiomeExtension> biomeWeights1; // Local biome weights, for individual column adjustment
+    protected final BiomeWeights[] sampledBiomeWeights; // 7x7 array of biome weights, at quart pos resolution
+    protected final BiomeWeights biomeWeights1; // Local biome weights, for individual column adjustment
+    protected BiomeWeights columnBiomeWeights; // The biome weights of the last sampled column. Each biome's noise sampler has been set to this column.
 
-    public ChunkHeightFiller(Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights)
+    public ChunkHeightFiller(BiomeNoiseSampler[] biomeNoiseSamplers, BiomeWeights[] sampledBiomeWeights)
     {
         this.biomeNoiseSamplers = biomeNoiseSamplers;
-        this.columnBiomeNoiseSamplers = new Object2DoubleOpenHashMap<>();
         this.sampledBiomeWeights = sampledBiomeWeights;
-        this.biomeWeights1 = new Object2DoubleOpenHashMap<>();
+        this.biomeWeights1 = new BiomeWeights();
+        this.columnBiomeWeights = biomeWeights1;
     }
 
     /**
@@ -64,10 +60,10 @@ public class ChunkHeightFiller
         final double lerpZ = (localZ - ((localZ >> 2) << 2)) * (1 / 4d);
 
         biomeWeights1.clear();
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[index4X + index4Z * 7], (1 - lerpX) * (1 - lerpZ));
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[(index4X + 1) + index4Z * 7], lerpX * (1 - lerpZ));
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[index4X + (index4Z + 1) * 7], (1 - lerpX) * lerpZ);
-        TFCChunkGenerator.sampleBiomesCornerContribution(biomeWeights1, sampledBiomeWeights[(index4X + 1) + (index4Z + 1) * 7], lerpX * lerpZ);
+        biomeWeights1.addAll(sampledBiomeWeights[index4X + index4Z * 7], (1 - lerpX) * (1 - lerpZ));
+        biomeWeights1.addAll(sampledBiomeWeights[(index4X + 1) + index4Z * 7], lerpX * (1 - lerpZ));
+        biomeWeights1.addAll(sampledBiomeWeights[index4X + (index4Z + 1) * 7], (1 - lerpX) * lerpZ);
+        biomeWeights1.addAll(sampledBiomeWeights[(index4X + 1) + (index4Z + 1) * 7], lerpX * lerpZ);
     }
 
     /**
@@ -75,12 +71,12 @@ public class ChunkHeightFiller
      *
      * @param blockX The block x value
      * @param blockZ The block z value
-     * @param updateArrays In the stateful implementation of this class, if {@link #afterSampleColumnHeightAndBiome(Object2DoubleMap, BiomeExtension, double)} should be called.
+     * @param updateArrays In the stateful implementation of this class, if {@link #afterSampleColumnHeightAndBiome(BiomeWeights, BiomeExtension, double)} should be called.
      * @return The maximum height at this location
      */
-    protected double sampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, int blockX, int blockZ, boolean updateArrays)
+    protected double sampleColumnHeightAndBiome(BiomeWeights biomeWeights, int blockX, int blockZ, boolean updateArrays)
     {
-        columnBiomeNoiseSamplers.clear();
+        columnBiomeWeights = biomeWeights;
 
         // Requires the column to be initialized (just x/z)
         double totalHeight = 0, riverHeight = 0, shoreHeight = 0;
@@ -91,21 +87,13 @@ public class ChunkHeightFiller
         BiomeExtension oceanicBiomeAt = null;
         double oceanicWeight = 0, maxOceanicWeight = 0; // Partition on ocean/non-ocean or water type.
 
-        for (Object2DoubleMap.Entry<BiomeExtension> entry : biomeWeights.object2DoubleEntrySet())
+        for (int i = 0; i < biomeWeights.size(); i++)
         {
-            final double weight = entry.getDoubleValue();
-            final BiomeExtension variants = entry.getKey();
-            final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(variants);
+            final double weight = biomeWeights.weight(i);
+            final BiomeExtension variants = biomeWeights.biome(i);
+            final BiomeNoiseSampler sampler = biomeNoiseSamplers[variants.id()];
 
-            if (columnBiomeNoiseSamplers.containsKey(sampler))
-            {
-                columnBiomeNoiseSamplers.mergeDouble(sampler, weight, Double::sum);
-            }
-            else
-            {
-                sampler.setColumn(blockX, blockZ);
-                columnBiomeNoiseSamplers.put(sampler, weight);
-            }
+            sampler.setColumn(blockX, blockZ); // Each biome has a unique sampler, and each biome is present at most once
 
             double height = weight * sampler.height();
             totalHeight += height;
@@ -117,7 +105,7 @@ public class ChunkHeightFiller
                 riverWeight += weight;
                 if (maxRiverWeight < weight)
                 {
-                    riverBiomeAt = entry.getKey();
+                    riverBiomeAt = variants;
                     maxRiverWeight = weight;
                 }
             }
@@ -127,13 +115,13 @@ public class ChunkHeightFiller
                 shoreWeight += weight;
                 if (maxShoreWeight < weight)
                 {
-                    shoreBiomeAt = entry.getKey();
+                    shoreBiomeAt = variants;
                     maxShoreWeight = weight;
                 }
             }
             else if (maxNormalWeight < weight)
             {
-                normalBiomeAt = entry.getKey();
+                normalBiomeAt = variants;
                 maxNormalWeight = weight;
             }
 
@@ -143,7 +131,7 @@ public class ChunkHeightFiller
                 oceanicWeight += weight;
                 if (maxOceanicWeight < weight)
                 {
-                    oceanicBiomeAt = entry.getKey();
+                    oceanicBiomeAt = variants;
                     maxOceanicWeight = weight;
                 }
             }
@@ -209,5 +197,5 @@ public class ChunkHeightFiller
         return actualHeight;
     }
 
-    protected void afterSampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, BiomeExtension biomeAt, double actualHeight) {}
+    protected void afterSampleColumnHeightAndBiome(BiomeWeights biomeWeights, BiomeExtension biomeAt, double actualHeight) {}
 }
@@ -8,8 +8,10 @@ package net.dries007.tfc.world;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
 import net.minecraft.Util;
 import net.minecraft.core.BlockPos;
@@ -27,7 +29,6 @@ import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.level.material.Fluids;
 
-import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
 import net.dries007.tfc.common.fluids.RiverWaterFluid;
 import net.dries007.tfc.common.fluids.TFCFluids;
 import net.dries007.tfc.world.biome.BiomeExtension;
@@ -78,6 +79,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
 
     // Noise interpolation
     private final ChunkNoiseSamplingSettings settings;
+    private final NoiseSampler sampler;
     private final List<TrilinearInterpolator> interpolators;
 
     // Noise Caves
@@ -89,6 +91,10 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private final TrilinearInterpolator noodleRidgeA;
     private final TrilinearInterpolator noodleRidgeB;
 
+    // Per-cell buffers, indexed by local cell y
+    private final double[] noiseCavesY, noodleToggleY, noodleThicknessY, noodleRidgeAY, noodleRidgeBY;
+    private final double[] caveNoiseY; // Combined noise and noodle cave noise
+
     // Aquifer + Noise -> BlockState
     private final TFCAquifer aquifer;
     private final ChunkBaseBlockSource baseBlockSource;
@@ -98,13 +104,24 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private final Biome[] localBiomes; // 16x16, block pos resolution
     private final double[] localBiomeWeights; // 16x16, block pos resolution
 
+    // Per-column buffers, indexed by y - minCellY, computed by computeColumn() and then written to the chunk by writeColumn()
+    private final int minCellY; // The minimum y position covered by noise cells
+    private final BlockState[] columnStates;
+    private final double[] columnTerrainNoise;
+    private final boolean[] columnScheduleFluidUpdate;
+    private int columnHeight; // The sampled surface height
+    private int columnMaxY; // Exclusive, the maximum filled y position
+    private Flow columnFlow;
+
+    private final Object writeLock; // Shared between a filler and all its workers, guards all writes to the chunk
+
     // Current local position / context
     private int blockX, blockZ; // Absolute x/z positions
     private int localX, localZ; // Chunk-local x/z
     private double cellDeltaX, cellDeltaZ; // Delta within a noise cell
     private int lastCellZ; // Last cell Z, needed due to a quick in noise interpolator
 
-    public ChunkNoiseFiller(LevelAccessor level, ProtoChunk chunk, Object2DoubleMap<BiomeExtension>[] sampledBiomeWeights, RiverSource riverSource, Map<BiomeExtension, BiomeNoiseSampler> biomeNoiseSamplers, BiomeResolver biomeResolver, NoiseSampler sampler, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel)
+    public ChunkNoiseFiller(LevelAccessor level, ProtoChunk chunk, BiomeWeights[] sampledBiomeWeights, RiverSource riverSource, BiomeNoiseSampler[] biomeNoiseSamplers, BiomeResolver biomeResolver, NoiseSampler sampler, ChunkBaseBlockSource baseBlockSource, ChunkNoiseSamplingSettings settings, int seaLevel)
     {
         super(biomeNoiseSamplers, sampledBiomeWeights);
 
@@ -124,6 +141,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         this.flows = buildFlowMap();
 
         this.settings = settings;
+        this.sampler = sampler;
         this.interpolators = new ArrayList<>();
         this.baseBlockSource = baseBlockSource;
 
@@ -136,6 +154,13 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         this.noodleRidgeA = addInterpolator(sampler.noodleRidgeA);
         this.noodleRidgeB = addInterpolator(sampler.noodleRidgeB);
 
+        this.noiseCavesY = new double[settings.cellHeight()];
+        this.noodleToggleY = new double[settings.cellHeight()];
+        this.noodleThicknessY = new double[settings.cellHeight()];
+        this.noodleRidgeAY = new double[settings.cellHeight()];
+        this.noodleRidgeBY = new double[settings.cellHeight()];
+        this.caveNoiseY = new double[settings.cellHeight()];
+
         // Aquifer
         this.aquifer = new TFCAquifer(chunk.getPos(), settings, baseBlockSource, seaLevel, sampler.positionalRandomFactory, sampler.barrierNoise);
 
@@ -144,6 +169,72 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         this.surfaceHeight = new int[16 * 16];
         this.localBiomes = new Biome[16 * 16];
         this.localBiomeWeights = new double[16 * 16];
+
+        this.minCellY = settings.firstCellY() * settings.cellHeight();
+        this.columnStates = new BlockState[settings.cellCountY() * settings.cellHeight()];
+        this.columnTerrainNoise = new double[settings.cellCountY() * settings.cellHeight()];
+        this.columnScheduleFluidUpdate = new boolean[settings.cellCountY() * settings.cellHeight()];
+
+        this.writeLock = new Object();
+    }
+
+    /**
+     * Creates a worker, which fills a part of the same chunk as {@code parent}, see {@link #fillFromNoise(ForkJoinPool, Supplier)}.
+     * A worker shares the chunk, and the output arrays (which are only written to for the worker's own columns) with the parent, but owns everything that is mutated during sampling: the interpolators, cave buffers, column biome weights, and aquifer.
+     */
+    private ChunkNoiseFiller(ChunkNoiseFiller parent, BiomeNoiseSampler[] biomeNoiseSamplers)
+    {
+        super(biomeNoiseSamplers, parent.sampledBiomeWeights);
+
+        this.level = parent.level;
+        this.chunk = parent.chunk;
+        this.chunkMinX = parent.chunkMinX;
+        this.chunkMinZ = parent.chunkMinZ;
+        this.quartX = parent.quartX;
+        this.quartZ = parent.quartZ;
+        this.oceanFloor = parent.oceanFloor;
+        this.worldSurface = parent.worldSurface;
+        this.airCarvingMask = parent.airCarvingMask;
+        this.seaLevel = parent.seaLevel;
+
+        this.riverSource = parent.riverSource;
+        this.riverWater = parent.riverWater;
+        this.flows = parent.flows;
+
+        this.settings = parent.settings;
+        this.sampler = parent.sampler;
+        this.interpolators = new ArrayList<>();
+        this.baseBlockSource = parent.baseBlockSource;
+
+        this.noiseCaves = addInterpolator(sampler.noiseCaves);
+        this.noodleToggle = addInterpolator(sampler.noodleToggle);
+        this.noodleThickness = addInterpolator(sampler.noodleThickness);
+        this.noodleRidgeA = addInterpolator(sampler.noodleRidgeA);
+        this.noodleRidgeB = addInterpolator(sampler.noodleRidgeB);
+
+        this.noiseCavesY = new double[settings.cellHeight()];
+        this.noodleToggleY = new double[settings.cellHeight()];
+        this.noodleThicknessY = new double[settings.cellHeight()];
+        this.noodleRidgeAY = new double[settings.cellHeight()];
+        this.noodleRidgeBY = new double[settings.cellHeight()];
+        this.caveNoiseY = new double[settings.cellHeight()];
+
+        // The aquifer tracks if the last sampled state needs a fluid update, so each worker needs its own
+        this.aquifer = new TFCAquifer(chunk.getPos(), settings, baseBlockSource, seaLevel, sampler.positionalRandomFactory, sampler.barrierNoise);
+        this.aquifer.setSurfaceHeights(parent.aquifer.getSurfaceHeights());
+
+        this.biomeResolver = parent.biomeResolver;
+
+        this.surfaceHeight = parent.surfaceHeight;
+        this.localBiomes = parent.localBiomes;
+        this.localBiomeWeights = parent.localBiomeWeights;
+
+        this.minCellY = parent.minCellY;
+        this.columnStates = new BlockState[parent.columnStates.length];
+        this.columnTerrainNoise = new double[parent.columnTerrainNoise.length];
+        this.columnScheduleFluidUpdate = new boolean[parent.columnScheduleFluidUpdate.length];
+
+        this.writeLock = parent.writeLock;
     }
 
     public TFCAquifer aquifer()
@@ -176,7 +267,7 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
                 final int actualZ = chunkMinZ - 32 + (z << 3);
                 final BiomeExtension biome = biomeSampler.get(actualX, actualZ);
 
-                final BiomeNoiseSampler sampler = biomeNoiseSamplers.get(biome);
+                final BiomeNoiseSampler sampler = biomeNoiseSamplers[biome.id()];
 
                 sampler.setColumn(actualX, actualZ);
 
@@ -246,37 +337,73 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
      */
     public void fillFromNoise()
     {
-
         initializeForFirstCellX();
-        final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
         for (int cellX = 0; cellX < settings.cellCountXZ(); cellX++)
         {
             advanceCellX(cellX);
-            for (int cellZ = 0; cellZ < settings.cellCountXZ(); cellZ++)
+            fillCellX(cellX);
+            swapSlices();
+        }
+    }
+
+    /**
+     * Fills the entire chunk, splitting the work by cell x across {@code pool}.
+     * Each cell x is filled by a separate worker, which samples its own interpolator slices, so the blocks placed are identical to {@link #fillFromNoise()}.
+     * Noise is sampled concurrently, but writes to the chunk (which are not thread safe) are made one column at a time, under a lock shared by all workers.
+     *
+     * @param biomeNoiseSamplers Provides the biome noise samplers for the current thread, which must not be in use by any other filler.
+     */
+    public void fillFromNoise(ForkJoinPool pool, Supplier<BiomeNoiseSampler[]> biomeNoiseSamplers)
+    {
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int cellX = 0; cellX < settings.cellCountXZ(); cellX++)
+        {
+            final int workerCellX = cellX;
+            tasks.add(pool.submit(() -> {
+                final ChunkNoiseFiller worker = new ChunkNoiseFiller(this, biomeNoiseSamplers.get());
+                worker.initializeForCellX(workerCellX);
+                worker.fillCellX(workerCellX);
+            }));
+        }
+
+        // Wait for every worker to finish before re-throwing any exceptions, so nothing is still writing to the chunk afterwards
+        tasks.forEach(ForkJoinTask::quietlyJoin);
+        tasks.forEach(ForkJoinTask::join);
+    }
+
+    /**
+     * Fills all columns within a single cell x. Requires the interpolators to have both slices sampled for this cell x.
+     */
+    private void fillCellX(int cellX)
+    {
+        final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+        for (int cellZ = 0; cellZ < settings.cellCountXZ(); cellZ++)
+        {
+            // skip cell Y
+            for (int localCellX = 0; localCellX < settings.cellWidth(); localCellX++)
             {
-                // skip cell Y
-                for (int localCellX = 0; localCellX < settings.cellWidth(); localCellX++)
+                blockX = chunkMinX + cellX * settings.cellWidth() + localCellX;
+                localX = blockX & 15;
+                cellDeltaX = (double) localCellX / settings.cellWidth();
+
+                // cannot update for x here because we first need to update for yz. So we do all three each time per cell
+                for (int localCellZ = 0; localCellZ < settings.cellWidth(); localCellZ++)
                 {
-                    blockX = chunkMinX + cellX * settings.cellWidth() + localCellX;
-                    localX = blockX & 15;
-                    cellDeltaX = (double) localCellX / settings.cellWidth();
+                    blockZ = chunkMinZ + cellZ * settings.cellWidth() + localCellZ;
+                    lastCellZ = cellZ; // needed for the noise interpolator
+                    localZ = blockZ & 15;
+                    cellDeltaZ = (double) localCellZ / settings.cellWidth();
 
-                    // cannot update for x here because we first need to update for yz. So we do all three each time per cell
-                    for (int localCellZ = 0; localCellZ < settings.cellWidth(); localCellZ++)
-                    {
-                        blockZ = chunkMinZ + cellZ * settings.cellWidth() + localCellZ;
-                        lastCellZ = cellZ; // needed for the noise interpolator
-                        localZ = blockZ & 15;
-                        cellDeltaZ = (double) localCellZ / settings.cellWidth();
+                    computeColumn(cellX, cellZ);
 
-                        mutablePos.set(blockX, 0, blockZ);
-                        fillColumn(mutablePos, cellX, cellZ);
+                    mutablePos.set(blockX, 0, blockZ);
+                    synchronized (writeLock)
+                    {
+                        writeColumn(mutablePos);
                     }
                 }
             }
-            swapSlices();
         }
-
     }
 
     /**
@@ -333,169 +460,182 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     }
 
     @Override
-    protected void afterSampleColumnHeightAndBiome(Object2DoubleMap<BiomeExtension> biomeWeights, BiomeExtension biomeAt, double actualHeight)
+    protected void afterSampleColumnHeightAndBiome(BiomeWeights biomeWeights, BiomeExtension biomeAt, double actualHeight)
     {
         localBiomes[localX + 16 * localZ] = biomeResolver.sample(biomeAt).value();
-        localBiomeWeights[localX + 16 * localZ] = biomeWeights.getOrDefault(biomeAt, 0.5);
+        localBiomeWeights[localX + 16 * localZ] = biomeWeights.get(biomeAt, 0.5);
         surfaceHeight[localX + 16 * localZ] = (int) actualHeight;
     }
 
     /**
-     * Fills a single column
-     *
-     * Deprecation for the use of {@link BlockState#getLightEmission()}
+     * Samples a single column into the column buffers, without modifying the chunk.
      */
-    @SuppressWarnings("deprecation")
-    private void fillColumn(BlockPos.MutableBlockPos cursor, int cellX, int cellZ)
+    private void computeColumn(int cellX, int cellZ)
     {
-        final boolean debugFillColumn = false;
-
         prepareColumnBiomeWeights(localX, localZ);
         sampleColumnHeightAndBiome(biomeWeights1, blockX, blockZ, true);
 
-        final int heightNoiseValue = surfaceHeight[localX + 16 * localZ]; // sample height, using the just-computed biome weights
-        final Flow flow = calculateFlowAt(cellX, cellZ);
+        columnHeight = surfaceHeight[localX + 16 * localZ]; // sample height, using the just-computed biome weights
+        columnFlow = calculateFlowAt(cellX, cellZ);
 
-        final int maxFilledY = 1 + Math.max(heightNoiseValue, seaLevel);
+        final int maxFilledY = 1 + Math.max(columnHeight, seaLevel);
         final int maxFilledCellY = Math.min(settings.cellCountY() - 1, 1 + Math.floorDiv(maxFilledY, settings.cellHeight()) - settings.firstCellY());
-        final int maxFilledSectionY = Math.min(chunk.getSectionsCount() - 1, 1 + chunk.getSectionIndex(maxFilledY));
 
-        // Top down iteration
-        // 1. We need to mark exposed air below the first solid ground as carving mask applicable.
-        // 2. We need to record the highest height (be it water or solid) for height map creation
-        boolean topBlockPlaced = false;
-        boolean topSolidBlockPlaced = false;
+        // Skip any heights at or above the max filled y. This helps to prevent over-height aquifers where possible.
+        columnMaxY = Math.min(maxFilledY, (settings.firstCellY() + maxFilledCellY + 1) * settings.cellHeight());
 
-        LevelChunkSection section = chunk.getSection(maxFilledSectionY);
         for (int cellY = maxFilledCellY; cellY >= 0; --cellY)
         {
             selectCellYZ(cellY, lastCellZ);
             updateForXZ(cellDeltaX, cellDeltaZ);
+            calculateCaveNoiseForCellY();
 
             for (int localCellY = settings.cellHeight() - 1; localCellY >= 0; --localCellY)
             {
                 final int y = (settings.firstCellY() + cellY) * settings.cellHeight() + localCellY;
-                if (y >= maxFilledY)
+                if (y < columnMaxY)
                 {
-                    // skip this height. This helps to prevent over-height aquifers where possible.
-                    continue;
-                }
+                    final int index = y - minCellY;
+                    final double noise = calculateNoiseAtHeight(y, columnHeight);
 
-                final int localY = y & 15;
-                final int sectionIndex = chunk.getSectionIndex(y);
-                if (chunk.getSectionIndex(section.bottomBlockY()) != sectionIndex)
-                {
-                    section = chunk.getSection(sectionIndex);
+                    columnStates[index] = calculateBlockStateAtNoise(blockX, y, blockZ, noise, caveNoiseY[localCellY]);
+                    columnTerrainNoise[index] = noise;
+                    columnScheduleFluidUpdate[index] = aquifer.shouldScheduleFluidUpdate();
                 }
+            }
+        }
+    }
+
+    /**
+     * Writes the last computed column to the chunk, including heightmaps, carving masks, fluid post-processing and light sources.
+     *
+     * Deprecation for the use of {@link BlockState#getLightEmission()}
+     */
+    @SuppressWarnings("deprecation")
+    private void writeColumn(BlockPos.MutableBlockPos cursor)
+    {
+        final boolean debugFillColumn = false;
+
+        // Top down iteration
+        // 1. We need to mark exposed air below the first solid ground as carving mask applicable.
+        // 2. We need to record the highest height (be it water or solid) for height map creation
+        boolean topBlockPlaced = false;
+        boolean topSolidBlockPlaced = false;
 
-                final double cellDeltaY = (double) localCellY / settings.cellHeight();
+        LevelChunkSection section = chunk.getSection(chunk.getSectionIndex(columnMaxY - 1));
+        for (int y = columnMaxY - 1; y >= minCellY; --y)
+        {
+            final int localY = y & 15;
+            final int sectionIndex = chunk.getSectionIndex(y);
+            if (chunk.getSectionIndex(section.bottomBlockY()) != sectionIndex)
+            {
+                section = chunk.getSection(sectionIndex);
+            }
 
-                updateForY(cellDeltaY);
+            final int index = y - minCellY;
+            final double noise = columnTerrainNoise[index];
+            final BlockState state = columnStates[index];
+            final FluidState fluid = state.getFluidState();
 
-                final double noise = calculateNoiseAtHeight(y, heightNoiseValue);
-                final BlockState state = calculateBlockStateAtNoise(blockX, y, blockZ, noise);
-                final FluidState fluid = state.getFluidState();
+            if (debugFillColumn && y < columnHeight && noise < 0)
+            {
+                // Below surface height, that has been carved out by BiomeNoiseSampler carving (not caves)
+                section.setBlockState(localX, localY, localZ, Blocks.RED_STAINED_GLASS.defaultBlockState(), false);
+            }
 
-                if (debugFillColumn && y < heightNoiseValue && noise < 0)
+            // Set block
+            cursor.setY(y);
+            if (!state.isAir())
+            {
+                // Need to account for underground rivers in this y level check, thus the smaller value between sea level and height noise
+                if (fluid.getType() == Fluids.WATER && columnFlow != Flow.NONE && y >= Math.min(seaLevel - 4, columnHeight))
                 {
-                    // Below surface height, that has been carved out by BiomeNoiseSampler carving (not caves)
-                    section.setBlockState(localX, localY, localZ, Blocks.RED_STAINED_GLASS.defaultBlockState(), false);
+                    // Place a flowing fluid block according to the river flow at this location
+                    section.setBlockState(localX, localY, localZ, debugFillColumn ? Blocks.BLUE_STAINED_GLASS.defaultBlockState() : riverWater.setValue(RiverWaterFluid.FLOW, columnFlow).createLegacyBlock(), false);
                 }
-
-                // Set block
-                cursor.setY(y);
-                if (!state.isAir())
+                else
                 {
-                    // Need to account for underground rivers in this y level check, thus the smaller value between sea level and height noise
-                    if (fluid.getType() == Fluids.WATER && flow != Flow.NONE && y >= Math.min(seaLevel - 4, heightNoiseValue))
+                    if (debugFillColumn)
                     {
-                        // Place a flowing fluid block according to the river flow at this location
-                        section.setBlockState(localX, localY, localZ, debugFillColumn ? Blocks.BLUE_STAINED_GLASS.defaultBlockState() : riverWater.setValue(RiverWaterFluid.FLOW, flow).createLegacyBlock(), false);
-                    }
-                    else
-                    {
-                        if (debugFillColumn)
+                        if (fluid.getType() == Fluids.WATER)
                         {
-                            if (fluid.getType() == Fluids.WATER)
-                            {
-                                section.setBlockState(localX, localY, localZ, Blocks.LIGHT_BLUE_STAINED_GLASS.defaultBlockState(), false);
-                            }
-                            else if (fluid.getType() == Fluids.LAVA)
-                            {
-                                section.setBlockState(localX, localY, localZ, Blocks.ORANGE_STAINED_GLASS.defaultBlockState(), false);
-                            }
+                            section.setBlockState(localX, localY, localZ, Blocks.LIGHT_BLUE_STAINED_GLASS.defaultBlockState(), false);
                         }
-                        else
+                        else if (fluid.getType() == Fluids.LAVA)
                         {
-                            section.setBlockState(localX, localY, localZ, state, false);
+                            section.setBlockState(localX, localY, localZ, Blocks.ORANGE_STAINED_GLASS.defaultBlockState(), false);
                         }
                     }
-                    if (aquifer.shouldScheduleFluidUpdate() && !fluid.isEmpty())
+                    else
                     {
-                        chunk.markPosForPostprocessing(cursor);
+                        section.setBlockState(localX, localY, localZ, state, false);
                     }
+                }
+                if (columnScheduleFluidUpdate[index] && !fluid.isEmpty())
+                {
+                    chunk.markPosForPostprocessing(cursor);
+                }
 
-                    // Handle lava
-                    if (state.getLightEmission() != 0)
-                    {
-                        chunk.addLight(cursor);
-                    }
+                // Handle lava
+                if (state.getLightEmission() != 0)
+                {
+                    chunk.addLight(cursor);
                 }
+            }
 
-                // Update heightmaps and carving masks
-                if (state.isAir()) // Air
+            // Update heightmaps and carving masks
+            if (state.isAir()) // Air
+            {
+                if (topSolidBlockPlaced)
                 {
-                    if (topSolidBlockPlaced)
+                    // Air under solid blocks, so mark as carved, and replace with cave air
+                    airCarvingMask.set(blockX, y, blockZ);
+                    if (debugFillColumn)
                     {
-                        // Air under solid blocks, so mark as carved, and replace with cave air
-                        airCarvingMask.set(blockX, y, blockZ);
-                        if (debugFillColumn)
-                        {
-                            if (section.getBlockState(localX, localY, localZ).isAir())
-                            {
-                                section.setBlockState(localX, localY, localZ, Blocks.LIGHT_GRAY_STAINED_GLASS.defaultBlockState(), false);
-                            }
-                        }
-                        else
+                        if (section.getBlockState(localX, localY, localZ).isAir())
                         {
-                            section.setBlockState(localX, localY, localZ, Blocks.CAVE_AIR.defaultBlockState(), false);
+                            section.setBlockState(localX, localY, localZ, Blocks.LIGHT_GRAY_STAINED_GLASS.defaultBlockState(), false);
                         }
                     }
-                }
-                else if (!fluid.isEmpty()) // Fluids
-                {
-                    if (!topBlockPlaced)
-                    {
-                        // Check carving mask
-                        topBlockPlaced = true;
-                        worldSurface.update(localX, y, localZ, state);
-                    }
-                    if (topSolidBlockPlaced)
+                    else
                     {
-                        // Fluids under solid blocks, so mark as carved
-                        airCarvingMask.set(blockX, y, blockZ);
+                        section.setBlockState(localX, localY, localZ, Blocks.CAVE_AIR.defaultBlockState(), false);
                     }
                 }
-                else // Solid rock
+            }
+            else if (!fluid.isEmpty()) // Fluids
+            {
+                if (!topBlockPlaced)
                 {
-                    // Update both heightmaps
-                    if (!topBlockPlaced)
-                    {
-                        topBlockPlaced = true;
-                        worldSurface.update(localX, y, localZ, state);
-                    }
-                    if (!topSolidBlockPlaced)
-                    {
-                        topSolidBlockPlaced = true;
-                        oceanFloor.update(localX, y, localZ, state);
-                    }
+                    // Check carving mask
+                    topBlockPlaced = true;
+                    worldSurface.update(localX, y, localZ, state);
                 }
-
-                if (debugFillColumn && y == heightNoiseValue)
+                if (topSolidBlockPlaced)
+                {
+                    // Fluids under solid blocks, so mark as carved
+                    airCarvingMask.set(blockX, y, blockZ);
+                }
+            }
+            else // Solid rock
+            {
+                // Update both heightmaps
+                if (!topBlockPlaced)
+                {
+                    topBlockPlaced = true;
+                    worldSurface.update(localX, y, localZ, state);
+                }
+                if (!topSolidBlockPlaced)
                 {
-                    section.setBlockState(localX, localY, localZ, Blocks.BLACK_STAINED_GLASS.defaultBlockState(), false);
+                    topSolidBlockPlaced = true;
+                    oceanFloor.update(localX, y, localZ, state);
                 }
             }
+
+            if (debugFillColumn && y == columnHeight)
+            {
+                section.setBlockState(localX, localY, localZ, Blocks.BLACK_STAINED_GLASS.defaultBlockState(), false);
+            }
         }
     }
 
@@ -535,11 +675,11 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     private double calculateNoiseAtHeight(int y, double heightNoiseValue)
     {
         double noise = 0;
-        for (Object2DoubleMap.Entry<BiomeNoiseSampler> entry : columnBiomeNoiseSamplers.object2DoubleEntrySet())
+        for (int i = 0; i < columnBiomeWeights.size(); i++)
         {
             // Positive values = air
-            final BiomeNoiseSampler sampler = entry.getKey();
-            noise += sampler.noise(y) * entry.getDoubleValue();
+            final BiomeNoiseSampler sampler = biomeNoiseSamplers[columnBiomeWeights.biome(i).id()];
+            noise += sampler.noise(y) * columnBiomeWeights.weight(i);
         }
 
         noise = BiomeNoiseSampler.AIR_THRESHOLD - noise; // Positive noise = solid
@@ -553,31 +693,48 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
     }
 
     /**
-     * @param terrainNoise The terrain noise for the position. Positive values indicate solid terrain, in the range [-1, 1]
-     * @return The block state for the position, including the aquifer, noise and noodle caves, and terrain.
+     * Computes the combined noise and noodle cave noise for every y position in the current cell, into {@link #caveNoiseY}.
+     * All interpolators are sampled for the whole cell first, in tight primitive loops, and then combined in a second pass, rather than per block.
      */
-    public BlockState calculateBlockStateAtNoise(int x, int y, int z, double terrainNoise)
+    private void calculateCaveNoiseForCellY()
     {
-        double terrainAndCaveNoise = terrainNoise;
-        if (noodleToggle.sample() >= 0)
+        noiseCaves.sampleCellY(noiseCavesY);
+        noodleToggle.sampleCellY(noodleToggleY);
+        noodleThickness.sampleCellY(noodleThicknessY);
+        noodleRidgeA.sampleCellY(noodleRidgeAY);
+        noodleRidgeB.sampleCellY(noodleRidgeBY);
+
+        for (int localCellY = 0; localCellY < caveNoiseY.length; localCellY++)
         {
-            final double thickness = Mth.clampedMap(noodleThickness.sample(), -1, 1, 0.05, 0.1);
-            final double ridgeA = Math.abs(1.5 * noodleRidgeA.sample()) - thickness;
-            final double ridgeB = Math.abs(1.5 * noodleRidgeB.sample()) - thickness;
-            final double ridge = Math.max(ridgeA, ridgeB);
+            double caveNoise = noiseCavesY[localCellY];
+            if (noodleToggleY[localCellY] >= 0)
+            {
+                final double thickness = Mth.clampedMap(noodleThicknessY[localCellY], -1, 1, 0.05, 0.1);
+                final double ridgeA = Math.abs(1.5 * noodleRidgeAY[localCellY]) - thickness;
+                final double ridgeB = Math.abs(1.5 * noodleRidgeBY[localCellY]) - thickness;
+                final double ridge = Math.max(ridgeA, ridgeB);
 
-            terrainAndCaveNoise = Math.min(terrainAndCaveNoise, ridge);
+                caveNoise = Math.min(caveNoise, ridge);
+            }
+            caveNoiseY[localCellY] = caveNoise;
         }
+    }
 
-        terrainAndCaveNoise = Math.min(terrainAndCaveNoise, noiseCaves.sample());
-
+    /**
+     * @param terrainNoise The terrain noise for the position. Positive values indicate solid terrain, in the range [-1, 1]
+     * @param caveNoise The combined noise and noodle cave noise for the position, from {@link #calculateCaveNoiseForCellY()}
+     * @return The block state for the position, including the aquifer, noise and noodle caves, and terrain.
+     */
+    public BlockState calculateBlockStateAtNoise(int x, int y, int z, double terrainNoise, double caveNoise)
+    {
+        final double terrainAndCaveNoise = Math.min(terrainNoise, caveNoise);
         final BlockState aquiferState = aquifer.sampleState(x, y, z, terrainAndCaveNoise);
         return Objects.requireNonNullElseGet(aquiferState, () -> baseBlockSource.getBaseBlock(x, y, z));
 
     }
 
     /**
-     * Initializes enough to call {@link #sampleColumnHeightAndBiome(Object2DoubleMap, int, int, boolean)}
+     * Initializes enough to call {@link #sampleColumnHeightAndBiome(BiomeWeights, int, int, boolean)}
      */
     private void setupColumn(int x, int z)
     {
@@ -601,6 +758,11 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         interpolators.forEach(TrilinearInterpolator::initializeForFirstCellX);
     }
 
+    private void initializeForCellX(final int cellX)
+    {
+        interpolators.forEach(i -> i.initializeForCellX(cellX));
+    }
+
     private void advanceCellX(final int cellX)
     {
         interpolators.forEach(i -> i.advanceCellX(cellX));
@@ -616,11 +778,6 @@ public class ChunkNoiseFiller extends ChunkHeightFiller
         interpolators.forEach(i -> i.updateForXZ(x, z));
     }
 
-    private void updateForY(final double y)
-    {
-        interpolators.forEach(i -> i.updateForY(y));
-    }
-
     private void swapSlices()
     {
         interpolators.forEach(TrilinearInterpolator::swapSlices);
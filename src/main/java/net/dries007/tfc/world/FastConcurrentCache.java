@@ -6,8 +6,8 @@
 
 package net.dries007.tfc.world;
 
-import java.util.Arrays;
-import java.util.concurrent.locks.StampedLock;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.ChunkPos;
@@ -17,53 +17,59 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * A concurrent (safe to read and write between multiple threads) positional based, lossy, cache.
+ * This is lock free: each slot holds an immutable key + value pair, which is published and read with a single atomic reference, so a reader can never observe a key with another key's value.
+ * Writes to the same slot race, and the last one wins, which is fine as all values for a given key are expected to be equivalent.
  */
 public class FastConcurrentCache<T>
 {
-    private final StampedLock lock = new StampedLock();
-
-    private final long[] keys;
-    private final T[] values;
+    private final AtomicReferenceArray<Entry<T>> entries;
     private final int mask;
 
-    @SuppressWarnings("unchecked")
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
     public FastConcurrentCache(int size)
     {
         size = Mth.smallestEncompassingPowerOfTwo(size);
 
         this.mask = size - 1;
-        this.keys = new long[size];
-        this.values = (T[]) new Object[size];
-
-        Arrays.fill(this.keys, Long.MIN_VALUE);
+        this.entries = new AtomicReferenceArray<>(size);
     }
 
     @Nullable
     public T getIfPresent(int x, int z)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.readLock();
-
-        T t = null;
-        if (keys[index] == key)
+        final Entry<T> entry = entries.get(index(key));
+        if (entry != null && entry.key == key)
         {
-            t = values[index];
+            hits.increment();
+            return entry.value;
         }
-
-        lock.unlockRead(stamp);
-        return t;
+        misses.increment();
+        return null;
     }
 
     public void set(int x, int z, T value)
     {
         final long key = ChunkPos.asLong(x, z);
-        final int index = (int) HashCommon.mix(key) & mask;
-        final long stamp = lock.writeLock();
+        entries.set(index(key), new Entry<>(key, value));
+    }
 
-        keys[index] = key;
-        values[index] = value;
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
 
-        lock.unlockWrite(stamp);
+    private int index(long key)
+    {
+        return (int) HashCommon.mix(key) & mask;
     }
+
+    private record Entry<T>(long key, T value) {}
 }
@@ -8,15 +8,20 @@ package net.dries007.tfc.world;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import net.minecraft.CrashReport;
 import net.minecraft.ReportedException;
+import net.minecraft.Util;
 import net.minecraft.core.*;
 import net.minecraft.resources.RegistryOps;
 import net.minecraft.server.level.WorldGenRegion;
@@ -49,10 +54,8 @@ import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
 import it.unimi.dsi.fastutil.ints.IntArraySet;
 import it.unimi.dsi.fastutil.ints.IntSet;
-import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
-import it.unimi.dsi.fastutil.objects.Object2DoubleOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArraySet;
-import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.dries007.tfc.config.TFCConfig;
 import net.dries007.tfc.mixin.accessor.ChunkAccessAccessor;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.biome.BiomeExtension;
@@ -66,6 +69,7 @@ import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
 import net.dries007.tfc.world.noise.Kernel;
 import net.dries007.tfc.world.noise.NoiseSampler;
 import net.dries007.tfc.world.surface.SurfaceManager;
+import org.jetbrains.annotations.Nullable;
 
 import static net.dries007.tfc.TerraFirmaCraft.MOD_ID;
 
@@ -93,57 +97,25 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     public static final Kernel KERNEL_9x9 = Kernel.create((x, z) -> 0.0211640211641D * (1 - 0.03125D * (z * z + x * x)), 4);
     public static final Kernel KERNEL_5x5 = Kernel.create((x, z) -> 0.08D * (1 - 0.125D * (z * z + x * x)), 2);
 
+    private static final ToIntFunction<BiomeExtension> GROUP_BY_BIOME_GROUP = biome -> biome.getGroup().ordinal();
+    private static final ToIntFunction<BiomeExtension> GROUP_BY_RIVER = biome -> biome.getGroup() == BiomeExtension.Group.RIVER ? 1 : 0;
+
     /**
-     * Composes two levels of sampled weights. It takes two maps of two different resolutions, and re-weights the higher resolution one by replacing specific groups of samples with the respective weights from the lower resolution map.
-     * Each element of the higher resolution map is replaced with a proportional average of the same group which is present in the lower resolution map.
-     * This has the effect of blending specific groups at closer distances than others, allowing for both smooth and sharp biome transitions.
-     *
-     * Example:
-     * - Low resolution: 30% Plains, 40% Mountains, 30% Hills, 10% River
-     * - High resolution: 60% Plains, 40% River
-     * - Groups are "River" and "Not River"
-     * - For each element in the high resolution map:
-     * - 60% Plains: Group "Not River", and is replaced with 60% * (30% Plains, 40% Mountains, 30% Hills) / 90%
-     * - 50% River: Group "River", which is replaced with 40% * (10% River) / 10%
-     * - Result: 18% Plains, 24% Mountains, 18% Hills, 40% River
+     * Intermediate biome weights used by {@link #sampleBiomes(ChunkPos, Sampler)}, reused per thread to avoid allocating them for each chunk.
      */
-    public static <T> void composeSampleWeights(Object2DoubleMap<T> weightMap, Object2DoubleMap<T> groupWeightMap, ToIntFunction<T> groupFunction, int groups)
-    {
-        // First, we need to calculate the maximum weight per group
-        double[] maxWeights = new double[groups];
-        for (Object2DoubleMap.Entry<T> entry : groupWeightMap.object2DoubleEntrySet())
-        {
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1)
-            {
-                maxWeights[group] += entry.getDoubleValue();
-            }
-        }
+    private static final ThreadLocal<BiomeSampleScratch> BIOME_SAMPLE_SCRATCH = ThreadLocal.withInitial(BiomeSampleScratch::new);
 
-        // Then, we iterate through the smaller weight map and identify the actual weight that needs to be replaced with each group
-        double[] actualWeights = new double[groups];
-        ObjectIterator<Object2DoubleMap.Entry<T>> iterator = weightMap.object2DoubleEntrySet().iterator();
-        while (iterator.hasNext())
-        {
-            Object2DoubleMap.Entry<T> entry = iterator.next();
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1)
-            {
-                actualWeights[group] += entry.getDoubleValue();
-                iterator.remove();
-            }
-        }
+    private static final int MAX_CACHED_BIOME_COMBINATIONS = 2048;
 
-        // Finally, insert the weights for each group as a portion of the actual weight
-        for (Object2DoubleMap.Entry<T> entry : groupWeightMap.object2DoubleEntrySet())
-        {
-            int group = groupFunction.applyAsInt(entry.getKey());
-            if (group != -1 && actualWeights[group] > 0 && maxWeights[group] > 0)
-            {
-                weightMap.put(entry.getKey(), entry.getDoubleValue() * actualWeights[group] / maxWeights[group]);
-            }
-        }
-    }
+    /**
+     * Worker threads used to fill a single chunk in parallel, if enabled via config. Only created when first used.
+     */
+    private static final Supplier<ForkJoinPool> NOISE_FILLING_POOL = Suppliers.memoize(() -> new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("TFC-Noise-Filler-" + thread.getPoolIndex());
+        thread.setContextClassLoader(TFCChunkGenerator.class.getClassLoader());
+        return thread;
+    }, null, false));
 
     /**
      * This is the default instance used in the TFC preset, both on client and server
@@ -153,17 +125,6 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return new TFCChunkGenerator(structures, parameters, TFCBiomeSource.defaultBiomeSource(seed, biomeRegistry), noiseGeneratorSettings, false, seed);
     }
 
-    public static <T> void sampleBiomesCornerContribution(Object2DoubleMap<T> accumulator, Object2DoubleMap<T> corner, double t)
-    {
-        if (t > 0)
-        {
-            for (Object2DoubleMap.Entry<T> entry : corner.object2DoubleEntrySet())
-            {
-                accumulator.mergeDouble(entry.getKey(), entry.getDoubleValue() * t, Double::sum);
-            }
-        }
-    }
-
     private static Map<BiomeExtension, Supplier<BiomeNoiseSampler>> collectBiomeNoiseSamplers(long seed)
     {
         final ImmutableMap.Builder<BiomeExtension, Supplier<BiomeNoiseSampler>> builder = ImmutableMap.builder();
@@ -180,31 +141,32 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     }
 
     /**
-     * @param pos           The target chunk pos.
-     * @param biomeSampler  A sampler for biomes, in block coordinates.
-     * @param groupFunction A function to access a {@link BiomeExtension.Group} from a {@link Biome}.
+     * @param pos          The target chunk pos.
+     * @param biomeSampler A sampler for biomes, in block coordinates.
      * @return A 7x7 array of sampled biome weights, at quart pos resolution, where the (0, 0) index aligns to the (-1, -1) quart position relative to the target chunk.
      */
-    private static <T> Object2DoubleMap<T>[] sampleBiomes(ChunkPos pos, Sampler<T> biomeSampler, Function<T, BiomeExtension.Group> groupFunction)
+    private static BiomeWeights[] sampleBiomes(ChunkPos pos, Sampler<BiomeExtension> biomeSampler)
     {
+        final BiomeSampleScratch scratch = BIOME_SAMPLE_SCRATCH.get();
+
         // First, sample biomes at chunk distance, in a 4x4 grid centered on the target chunk.
         // These are used to build the large-scale biome blending radius
-        final Object2DoubleMap<T>[] chunkBiomeWeightArray = newWeightArray(4 * 4);
+        final BiomeWeights[] chunkBiomeWeightArray = scratch.chunkBiomeWeights;
         final int chunkX = pos.getMinBlockX(), chunkZ = pos.getMinBlockZ(); // Block coordinates
         for (int x = 0; x < 4; x++)
         {
             for (int z = 0; z < 4; z++)
             {
                 // x, z = 0, 0 is the -1, -1 chunk relative to chunkX, chunkZ
-                final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>();
-                chunkBiomeWeightArray[x | (z << 2)] = chunkBiomeWeight;
+                final BiomeWeights chunkBiomeWeight = chunkBiomeWeightArray[x | (z << 2)];
+                chunkBiomeWeight.clear();
                 sampleBiomesAtPositionWithKernel(chunkBiomeWeight, biomeSampler, KERNEL_9x9, 4, chunkX, chunkZ, x - 1, z - 1);
             }
         }
 
         // A 7x7 grid, in quart positions relative to the target chunk, where (1, 1) is the target chunk origin.
-        final Object2DoubleMap<T>[] quartBiomeWeightArray = newWeightArray(7 * 7);
-        final Object2DoubleMap<T> chunkBiomeWeight = new Object2DoubleOpenHashMap<>(), wideQuartBiomeWeight = new Object2DoubleOpenHashMap<>();
+        final BiomeWeights[] quartBiomeWeightArray = new BiomeWeights[7 * 7];
+        final BiomeWeights chunkBiomeWeight = scratch.chunkBiomeWeight, wideQuartBiomeWeight = scratch.wideQuartBiomeWeight;
 
         for (int x = 0; x < 7; x++)
         {
@@ -229,25 +191,20 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final int index16X = ((x1 - chunkX) >> 4) + 1; // Index into chunkBiomeWeightArray
                 final int index16Z = ((z1 - chunkZ) >> 4) + 1;
 
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
-                sampleBiomesCornerContribution(chunkBiomeWeight, chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
+                chunkBiomeWeight.addAll(chunkBiomeWeightArray[index16X | (index16Z << 2)], (1 - lerpX) * (1 - lerpZ));
+                chunkBiomeWeight.addAll(chunkBiomeWeightArray[(index16X + 1) | (index16Z << 2)], lerpX * (1 - lerpZ));
+                chunkBiomeWeight.addAll(chunkBiomeWeightArray[index16X | ((index16Z + 1) << 2)], (1 - lerpX) * lerpZ);
+                chunkBiomeWeight.addAll(chunkBiomeWeightArray[(index16X + 1) | ((index16Z + 1) << 2)], lerpX * lerpZ);
 
                 // Compose chunk weights -> wide quart weights.
-                composeSampleWeights(wideQuartBiomeWeight, chunkBiomeWeight, biome -> {
-                    final BiomeExtension.Group group = groupFunction.apply(biome);
-                    return group.ordinal();
-                }, BiomeExtension.Group.SIZE);
+                wideQuartBiomeWeight.compose(chunkBiomeWeight, GROUP_BY_BIOME_GROUP, BiomeExtension.Group.SIZE, scratch.groupWeights);
 
                 // Same as wideQuartBiomeWeight, but only with a sample radius of 2, rather than 4
-                final Object2DoubleMap<T> quartBiomeWeight = new Object2DoubleOpenHashMap<>();
+                // This is the result, so it is not a scratch buffer, as the result is cached and shared
+                final BiomeWeights quartBiomeWeight = new BiomeWeights();
                 sampleBiomesAtPositionWithKernel(quartBiomeWeight, biomeSampler, KERNEL_5x5, 2, chunkX, chunkZ, x - 1, z - 1);
 
-                composeSampleWeights(quartBiomeWeight, wideQuartBiomeWeight, biome -> {
-                    final BiomeExtension.Group group = groupFunction.apply(biome);
-                    return group == BiomeExtension.Group.RIVER ? 1 : 0;
-                }, 2);
+                quartBiomeWeight.compose(wideQuartBiomeWeight, GROUP_BY_RIVER, 2, scratch.groupWeights);
 
                 quartBiomeWeightArray[x + 7 * z] = quartBiomeWeight;
             }
@@ -255,7 +212,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return quartBiomeWeightArray;
     }
 
-    private static <T> void sampleBiomesAtPositionWithKernel(Object2DoubleMap<T> weights, Sampler<T> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
+    private static void sampleBiomesAtPositionWithKernel(BiomeWeights weights, Sampler<BiomeExtension> biomeSampler, Kernel kernel, int kernelBits, int chunkX, int chunkZ, int xOffsetInKernelBits, int zOffsetInKernelBits)
     {
         final int kernelRadius = kernel.radius();
         final int kernelWidth = kernel.width();
@@ -266,18 +223,12 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
                 final double weight = kernel.values()[(dx + kernelRadius) + (dz + kernelRadius) * kernelWidth];
                 final int blockX = chunkX + ((xOffsetInKernelBits + dx) << kernelBits); // Block positions
                 final int blockZ = chunkZ + ((zOffsetInKernelBits + dz) << kernelBits);
-                final T biome = biomeSampler.get(blockX, blockZ);
-                weights.mergeDouble(biome, weight, Double::sum);
+                final BiomeExtension biome = biomeSampler.get(blockX, blockZ);
+                weights.add(biome, weight);
             }
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private static <T> Object2DoubleMap<T>[] newWeightArray(int size)
-    {
-        return (Object2DoubleMap<T>[]) new Object2DoubleMap[size]; // Avoid generic array warnings / errors
-    }
-
     // Properties set from codec
     private final Registry<StructureSet> structures;
     private final Registry<NormalNoise.NoiseParameters> parameters;
@@ -290,8 +241,14 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     private final NoiseBasedChunkGenerator stupidMojangChunkGenerator; // Mojang fix your god awful deprecated carver nonsense
     private final FastConcurrentCache<TFCAquifer> aquiferCache;
+    private final FastConcurrentCache<BiomeWeights[]> biomeWeightCache;
+    private final BaseHeightCache baseHeightCache;
+    private final Map<Set<Biome>, int[][]> featureIndicesByBiomes;
+    @Nullable private volatile StructureFeaturesByStep cachedStructureFeaturesByStep;
 
     private final Map<BiomeExtension, Supplier<BiomeNoiseSampler>> biomeNoiseSamplers;
+    private final ThreadLocal<BiomeNoiseSampler[]> biomeNoiseSamplersPerThread;
+    private final Sampler<BiomeExtension> biomeSampler;
     private final ChunkDataProvider chunkDataProvider;
     private final SurfaceManager surfaceManager;
     private final NoiseSampler noiseSampler;
@@ -310,8 +267,16 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
         this.stupidMojangChunkGenerator = new NoiseBasedChunkGenerator(structures, parameters, biomeSource, seed, settings);
         this.aquiferCache = new FastConcurrentCache<>(256);
+        this.biomeWeightCache = new FastConcurrentCache<>(512);
+        this.baseHeightCache = new BaseHeightCache(1024, (chunkX, chunkZ) -> {
+            final ChunkHeightFiller filler = createHeightFillerForChunk(new ChunkPos(chunkX, chunkZ));
+            return (blockX, blockZ) -> (int) filler.sampleHeight(blockX, blockZ);
+        });
+        this.featureIndicesByBiomes = new ConcurrentHashMap<>();
 
         this.biomeNoiseSamplers = collectBiomeNoiseSamplers(seed);
+        this.biomeNoiseSamplersPerThread = ThreadLocal.withInitial(this::createBiomeSamplers);
+        this.biomeSampler = this::sampleBiomeVariants;
         this.chunkDataProvider = customBiomeSource.getChunkDataProvider();
         this.surfaceManager = new SurfaceManager(seed);
         this.noiseSampler = new NoiseSampler(this.settings.value().noiseSettings(), seed, parameters);
@@ -353,13 +318,13 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public CompletableFuture<ChunkAccess> createBiomes(Registry<Biome> biomeRegistry, Executor executor, Blender legacyTerrainBlender, StructureFeatureManager structureFeatureManager, ChunkAccess chunk)
     {
-        // todo: async biome loading
-        // This has caused some very weird issue that I don't quite understand
-        // Somehow, if this is allowed to be async, in the same fashion as vanilla, this will actually load biomes incorrectly into the chunk, and/or cause the biome source to be inaccurate later. I have no idea how this happens and am at my limit for debugging this multithreading insanity.
-        // The symptom of this will be chunks that appear to have generated at a different height or noise from surrounding ones.
-        chunkDataProvider.get(chunk);
-        chunk.fillBiomesFromNoise((quartX, quartY, quartZ, sampler) -> customBiomeSource.getNoiseBiome(quartX, quartZ), climateSampler());
-        return CompletableFuture.completedFuture(chunk);
+        // Biome sampling is thread safe: areas are thread local, and watershed caches are concurrent.
+        // Chunk data generation is guarded in the chunk data provider, so a concurrent query for the same chunk cannot regenerate (and overwrite) data that was set later in generation, such as the rock surface height.
+        return CompletableFuture.supplyAsync(Util.wrapThreadWithTaskName("init_biomes", () -> {
+            chunkDataProvider.get(chunk);
+            chunk.fillBiomesFromNoise((quartX, quartY, quartZ, sampler) -> customBiomeSource.getNoiseBiome(quartX, quartZ), climateSampler());
+            return chunk;
+        }), executor);
     }
 
     @Override
@@ -479,8 +444,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         final Registry<ConfiguredStructureFeature<?, ?>> structureFeatures = level.registryAccess().registryOrThrow(Registry.CONFIGURED_STRUCTURE_FEATURE_REGISTRY);
         final Registry<PlacedFeature> placedFeatures = level.registryAccess().registryOrThrow(Registry.PLACED_FEATURE_REGISTRY);
 
-        final Map<Integer, List<ConfiguredStructureFeature<?, ?>>> structureFeaturesByStep = structureFeatures.stream()
-            .collect(Collectors.groupingBy(feature -> feature.feature.step().ordinal()));
+        final Map<Integer, List<ConfiguredStructureFeature<?, ?>>> structureFeaturesByStep = getStructureFeaturesByStep(structureFeatures);
 
         final List<BiomeSource.StepFeatureData> orderedFeatures = customBiomeSource.featuresPerStep();
         final Random random = new Random();
@@ -495,6 +459,8 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             }
         });
 
+        final int[][] sortedIndicesByStep = getFeatureIndicesByStep(level, allAdjacentBiomes, orderedFeatures);
+
         for (int decorationIndex = 0; decorationIndex < Math.max(DECORATION_STEPS, orderedFeatures.size()); ++decorationIndex)
         {
             if (structureFeatureManager.shouldGenerateFeatures())
@@ -523,25 +489,9 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
             if (decorationIndex < orderedFeatures.size())
             {
-                final IntSet featureIndices = new IntArraySet();
-                for (Biome biome : allAdjacentBiomes)
-                {
-                    List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
-                    if (decorationIndex < featuresPerBiome.size())
-                    {
-                        final HolderSet<PlacedFeature> featuresPerBiomeAtStep = featuresPerBiome.get(decorationIndex);
-                        final BiomeSource.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
-                        for (Holder<PlacedFeature> holder : featuresPerBiomeAtStep)
-                        {
-                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
-                        }
-                    }
-                }
-
-                final int[] sortedIndices = featureIndices.toIntArray();
+                final int[] sortedIndices = sortedIndicesByStep[decorationIndex];
                 final BiomeSource.StepFeatureData step = orderedFeatures.get(decorationIndex);
 
-                Arrays.sort(sortedIndices);
                 for (int featureIndex : sortedIndices)
                 {
                     final PlacedFeature feature = step.features().get(featureIndex);
@@ -586,14 +536,21 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
             sections.add(section);
         }
 
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(chunkPos, this::sampleBiomeVariants, BiomeExtension::getGroup);
+        final BiomeWeights[] biomeWeights = getOrSampleBiomeWeights(chunkPos);
         final ChunkBaseBlockSource baseBlockSource = createBaseBlockSourceForChunk(chunk);
-        final ChunkNoiseFiller filler = new ChunkNoiseFiller(actualLevel, (ProtoChunk) chunk, biomeWeights, customBiomeSource, createBiomeSamplersForChunk(), customBiomeSource::getBiome, noiseSampler, baseBlockSource, settings, getSeaLevel());
+        final ChunkNoiseFiller filler = new ChunkNoiseFiller(actualLevel, (ProtoChunk) chunk, biomeWeights, customBiomeSource, biomeNoiseSamplersPerThread.get(), customBiomeSource::getBiome, noiseSampler, baseBlockSource, settings, getSeaLevel());
 
-        filler.setupAquiferSurfaceHeight(this::sampleBiomeVariants);
+        filler.setupAquiferSurfaceHeight(biomeSampler);
         chunkData.setAquiferSurfaceHeight(filler.aquifer().getSurfaceHeights()); // Record this in the chunk data so caves can query it accurately
         rockData.setSurfaceHeight(filler.getSurfaceHeight()); // Need to set this in the rock data before we can fill the chunk proper
-        filler.fillFromNoise();
+        if (TFCConfig.COMMON.enableParallelNoiseFilling.get())
+        {
+            filler.fillFromNoise(NOISE_FILLING_POOL.get(), biomeNoiseSamplersPerThread::get);
+        }
+        else
+        {
+            filler.fillFromNoise();
+        }
 
         aquiferCache.set(chunkPos.x, chunkPos.z, filler.aquifer());
 
@@ -633,8 +590,7 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
     @Override
     public int getBaseHeight(int x, int z, Heightmap.Types type, LevelHeightAccessor level)
     {
-        final ChunkPos pos = new ChunkPos(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
-        return (int) createHeightFillerForChunk(pos).sampleHeight(x, z);
+        return baseHeightCache.get(x, z);
     }
 
     @Override
@@ -643,6 +599,20 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return new NoiseColumn(0, new BlockState[0]);
     }
 
+    /**
+     * Samples the base height of an arbitrary rectangle of columns. Heights are cached, and a single height filler is used for all columns sampled in each chunk, so this is much cheaper than repeated calls to {@link #getBaseHeight(int, int, Heightmap.Types, LevelHeightAccessor)}.
+     *
+     * @param minBlockX The minimum block X.
+     * @param minBlockZ The minimum block Z.
+     * @param width     The width of the rectangle, in the X direction.
+     * @param depth     The depth of the rectangle, in the Z direction.
+     * @return The base heights, indexed by {@code dx + width * dz}.
+     */
+    public int[] getBaseHeights(int minBlockX, int minBlockZ, int width, int depth)
+    {
+        return baseHeightCache.get(minBlockX, minBlockZ, width, depth);
+    }
+
     @Override
     public void addDebugScreenInfo(List<String> list, BlockPos pos) {}
 
@@ -685,6 +655,62 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         }
     }
 
+    /**
+     * Structure features, grouped by decoration step. This only depends on the registry, so it is computed once per registry instance.
+     */
+    private Map<Integer, List<ConfiguredStructureFeature<?, ?>>> getStructureFeaturesByStep(Registry<ConfiguredStructureFeature<?, ?>> structureFeatures)
+    {
+        StructureFeaturesByStep cached = cachedStructureFeaturesByStep;
+        if (cached == null || cached.registry != structureFeatures)
+        {
+            cached = new StructureFeaturesByStep(structureFeatures, structureFeatures.stream()
+                .collect(Collectors.groupingBy(feature -> feature.feature.step().ordinal())));
+            cachedStructureFeaturesByStep = cached;
+        }
+        return cached.featuresByStep;
+    }
+
+    /**
+     * The sorted feature indices, per decoration step, for all features present in any of the given biomes. Most chunks only border a handful of distinct biome combinations, so this is cached by the set of biomes.
+     *
+     * @return An array indexed by decoration step, of sorted indices into the {@link BiomeSource.StepFeatureData} for that step.
+     */
+    private int[][] getFeatureIndicesByStep(WorldGenLevel level, Set<Biome> biomes, List<BiomeSource.StepFeatureData> orderedFeatures)
+    {
+        int[][] sortedIndicesByStep = featureIndicesByBiomes.get(biomes);
+        if (sortedIndicesByStep == null)
+        {
+            sortedIndicesByStep = new int[orderedFeatures.size()][];
+            for (int decorationIndex = 0; decorationIndex < orderedFeatures.size(); decorationIndex++)
+            {
+                final IntSet featureIndices = new IntArraySet();
+                final BiomeSource.StepFeatureData stepIndex = orderedFeatures.get(decorationIndex);
+                for (Biome biome : biomes)
+                {
+                    List<HolderSet<PlacedFeature>> featuresPerBiome = TFCBiomes.getExtensionOrThrow(level, biome).getFlattenedFeatures(biome);
+                    if (decorationIndex < featuresPerBiome.size())
+                    {
+                        for (Holder<PlacedFeature> holder : featuresPerBiome.get(decorationIndex))
+                        {
+                            featureIndices.add(stepIndex.indexMapping().applyAsInt(holder.value()));
+                        }
+                    }
+                }
+
+                final int[] sortedIndices = featureIndices.toIntArray();
+                Arrays.sort(sortedIndices);
+                sortedIndicesByStep[decorationIndex] = sortedIndices;
+            }
+
+            if (featureIndicesByBiomes.size() >= MAX_CACHED_BIOME_COMBINATIONS)
+            {
+                featureIndicesByBiomes.clear(); // Unusual, but bound the cache in case of a very large number of biomes
+            }
+            featureIndicesByBiomes.put(Set.copyOf(biomes), sortedIndicesByStep);
+        }
+        return sortedIndicesByStep;
+    }
+
     private BoundingBox getBoundingBoxForStructure(ChunkAccess chunk)
     {
         final ChunkPos pos = chunk.getPos();
@@ -700,14 +726,29 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
 
     public ChunkHeightFiller createHeightFillerForChunk(ChunkPos pos)
     {
-        final Object2DoubleMap<BiomeExtension>[] biomeWeights = sampleBiomes(pos, this::sampleBiomeVariants, BiomeExtension::getGroup);
-        return new ChunkHeightFiller(createBiomeSamplersForChunk(), biomeWeights);
+        final BiomeWeights[] biomeWeights = getOrSampleBiomeWeights(pos);
+        return new ChunkHeightFiller(biomeNoiseSamplersPerThread.get(), biomeWeights);
+    }
+
+    /**
+     * Biome weights only depend on the biome source, so they are cached and shared between height queries (structures, locating) and noise filling of the same chunk.
+     * The returned array, and the maps it contains, <strong>must not</strong> be modified.
+     */
+    private BiomeWeights[] getOrSampleBiomeWeights(ChunkPos pos)
+    {
+        BiomeWeights[] biomeWeights = biomeWeightCache.getIfPresent(pos.x, pos.z);
+        if (biomeWeights == null)
+        {
+            biomeWeights = sampleBiomes(pos, biomeSampler);
+            biomeWeightCache.set(pos.x, pos.z, biomeWeights);
+        }
+        return biomeWeights;
     }
 
     private ChunkBaseBlockSource createBaseBlockSourceForChunk(ChunkAccess chunk)
     {
         final RockData rockData = chunkDataProvider.get(chunk).getRockData();
-        return new ChunkBaseBlockSource(rockData, this::sampleBiomeVariants);
+        return new ChunkBaseBlockSource(rockData, biomeSampler);
     }
 
     private ChunkNoiseSamplingSettings createNoiseSamplingSettingsForChunk(ChunkAccess chunk)
@@ -734,14 +775,18 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         return new ChunkNoiseSamplingSettings(minY, 16 / cellWidth, cellCountY, cellWidth, cellHeight, firstCellX, firstCellY, firstCellZ);
     }
 
-    private Map<BiomeExtension, BiomeNoiseSampler> createBiomeSamplersForChunk()
+    /**
+     * Noise samplers are deterministic given the seed, and every use calls {@link BiomeNoiseSampler#setColumn(int, int)} before sampling, so a single set may be reused by every filler on the same thread.
+     * Those are pooled per thread via {@link #biomeNoiseSamplersPerThread}, as constructing the noise for every biome is expensive.
+     */
+    private BiomeNoiseSampler[] createBiomeSamplers()
     {
-        final ImmutableMap.Builder<BiomeExtension, BiomeNoiseSampler> builder = ImmutableMap.builder();
+        final BiomeNoiseSampler[] samplers = new BiomeNoiseSampler[BiomeExtension.MAX_ID];
         for (Map.Entry<BiomeExtension, Supplier<BiomeNoiseSampler>> entry : biomeNoiseSamplers.entrySet())
         {
-            builder.put(entry.getKey(), entry.getValue().get());
+            samplers[entry.getKey().id()] = entry.getValue().get();
         }
-        return builder.build();
+        return samplers;
     }
 
     private TFCAquifer getOrCreateAquifer(ChunkAccess chunk, ChunkNoiseSamplingSettings settings, ChunkBaseBlockSource baseBlockSource)
@@ -760,4 +805,14 @@ public class TFCChunkGenerator extends ChunkGenerator implements ChunkGeneratorE
         }
         return aquifer;
     }
-}
\ No newline at end of file
+
+    private static final class BiomeSampleScratch
+    {
+        final BiomeWeights[] chunkBiomeWeights = Util.make(new BiomeWeights[4 * 4], array -> Arrays.setAll(array, i -> new BiomeWeights()));
+        final BiomeWeights chunkBiomeWeight = new BiomeWeights();
+        final BiomeWeights wideQuartBiomeWeight = new BiomeWeights();
+        final double[] groupWeights = new double[2 * BiomeExtension.Group.SIZE];
+    }
+
+    private record StructureFeaturesByStep(Registry<ConfiguredStructureFeature<?, ?>> registry, Map<Integer, List<ConfiguredStructureFeature<?, ?>>> featuresByStep) {}
+}
@@ -9,6 +9,7 @@ package net.dries007.tfc.world.biome;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.LongFunction;
 import java.util.stream.Collectors;
@@ -30,7 +31,16 @@ import org.jetbrains.annotations.Nullable;
  */
 public class BiomeExtension
 {
+    /**
+     * The maximum number of extensions. Matches the width of the biome layer id space in {@link net.dries007.tfc.world.layer.TFCLayers}.
+     * Extensions are assigned a dense id in [0, MAX_ID), which is used to index primitive arrays during world generation.
+     */
+    public static final int MAX_ID = 64;
+
+    private static final AtomicInteger NEXT_ID = new AtomicInteger(0);
+
     private final ResourceKey<Biome> key;
+    private final int id;
 
     private final LongFunction<BiomeNoiseSampler> noiseFactory;
     private final DoubleUnaryOperator aquiferSurfaceHeight;
@@ -50,6 +60,7 @@ public class BiomeExtension
     BiomeExtension(ResourceKey<Biome> key, LongFunction<BiomeNoiseSampler> noiseFactory, SurfaceBuilderFactory surfaceBuilderFactory, DoubleUnaryOperator aquiferSurfaceHeight, Group group, boolean salty, boolean volcanic, int volcanoRarity, int volcanoBasaltHeight, boolean spawnable)
     {
         this.key = key;
+        this.id = NEXT_ID.getAndIncrement();
         this.noiseFactory = noiseFactory;
         this.surfaceBuilderFactory = surfaceBuilderFactory;
         this.aquiferSurfaceHeight = aquiferSurfaceHeight;
@@ -59,6 +70,11 @@ public class BiomeExtension
         this.volcanoRarity = volcanoRarity;
         this.volcanoBasaltHeight = volcanoBasaltHeight;
         this.spawnable = spawnable;
+
+        if (id >= MAX_ID)
+        {
+            throw new IllegalStateException("Too many biome extensions, max = " + MAX_ID + ", at " + key);
+        }
     }
 
     public ResourceKey<Biome> key()
@@ -66,6 +82,14 @@ public class BiomeExtension
         return key;
     }
 
+    /**
+     * @return A dense id, in the range [0, {@link #MAX_ID}).
+     */
+    public int id()
+    {
+        return id;
+    }
+
     public Group getGroup()
     {
         return group;
@@ -33,7 +33,6 @@ import net.dries007.tfc.world.chunkdata.TFCChunkDataGenerator;
 import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.layer.framework.ConcurrentArea;
 import net.dries007.tfc.world.river.Flow;
-import net.dries007.tfc.world.river.MidpointFractal;
 import net.dries007.tfc.world.river.Watershed;
 import net.dries007.tfc.world.settings.ClimateSettings;
 import net.dries007.tfc.world.settings.RockLayerSettings;
@@ -109,19 +108,7 @@ public class TFCBiomeSource extends BiomeSource implements BiomeSourceExtension,
     {
         final float scale = 1f / (1 << 7);
         final float x0 = quartX * scale, z0 = quartZ * scale;
-        for (MidpointFractal fractal : getWatersheds().getFractalsByPartition(quartX, quartZ))
-        {
-            // maybeIntersect will skip the more expensive calculation if it fails
-            if (fractal.maybeIntersect(x0, z0, Watershed.RIVER_WIDTH))
-            {
-                final Flow flow = fractal.intersectWithFlow(x0, z0, Watershed.RIVER_WIDTH);
-                if (flow != Flow.NONE)
-                {
-                    return flow;
-                }
-            }
-        }
-        return Flow.NONE;
+        return getWatersheds().getPartition(quartX, quartZ).intersectWithFlow(x0, z0, Watershed.RIVER_WIDTH);
     }
 
     @Override
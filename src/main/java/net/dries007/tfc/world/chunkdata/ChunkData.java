@@ -73,7 +73,7 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
     private final RockLayerSettings rockLayerSettings;
     private final ChunkPos pos;
 
-    private Status status;
+    private volatile Status status; // Read outside of synchronization during concurrent generation
 
     @Nullable private RockData rockData;
     @Nullable private LerpFloatLayer rainfallLayer;
@@ -209,11 +209,11 @@ public class ChunkData implements ICapabilitySerializable<CompoundTag>
     }
 
     /**
-     * Create an update packet to send to client with necessary information
+     * Create an update entry to send to client with necessary information, see {@link ChunkDataCache.SyncQueue}
      */
-    public ChunkWatchPacket getUpdatePacket()
+    public ChunkWatchPacket.Entry getUpdateEntry()
     {
-        return new ChunkWatchPacket(pos.x, pos.z, rainfallLayer, temperatureLayer, forestType, forestDensity, forestWeirdness, plateTectonicsInfo);
+        return new ChunkWatchPacket.Entry(pos.x, pos.z, rainfallLayer, temperatureLayer, forestType, forestDensity, forestWeirdness, plateTectonicsInfo);
     }
 
     /**
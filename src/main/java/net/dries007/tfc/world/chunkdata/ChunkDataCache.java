@@ -6,10 +6,13 @@
 
 package net.dries007.tfc.world.chunkdata;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import net.minecraft.server.level.ServerPlayer;
@@ -17,6 +20,13 @@ import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.LevelReader;
 import net.minecraftforge.network.PacketDistributor;
 
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import net.dries007.tfc.network.ChunkWatchPacket;
 import net.dries007.tfc.network.PacketHandler;
 import net.dries007.tfc.util.Helpers;
 import org.jetbrains.annotations.Nullable;
@@ -24,28 +34,36 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Sided cache of chunk data instances, for when a world context is unavailable.
  * Automatically synchronized on chunk watch / unwatch events, and updated on chunk load and unload.
+ * This is safe to access from multiple threads, as it is queried during world generation: entries are split by position between a number of stripes, each of which is locked independently.
  * This is only valid in the overworld.
  */
 public final class ChunkDataCache
 {
     /**
      * This is a cache of client side chunk data, used for when there is no world context available.
-     * It is synced on chunk watch / unwatch
+     * It is synced on chunk watch / unwatch. It is bounded, well above the number of chunks within the maximum view distance, so entries for chunks which were never unwatched (for instance, on disconnect) cannot accumulate.
      */
-    public static final ChunkDataCache CLIENT = new ChunkDataCache("client");
+    public static final ChunkDataCache CLIENT = new ChunkDataCache("client", 1 << 15);
 
     /**
      * This is a cache of server side chunk data.
-     * It is not synced, it is updated on chunk load / unload
+     * It is not synced, it is updated on chunk load / unload, so it is not bounded, as it only holds loaded chunks.
      */
-    public static final ChunkDataCache SERVER = new ChunkDataCache("server");
+    public static final ChunkDataCache SERVER = new ChunkDataCache("server", Integer.MAX_VALUE);
 
     /**
      * This is a set of chunk positions which have been queued for chunk watch, but were not loaded or generated at the time.
      * As a result, no data was able to be sent to the client cache. In these situations, we wait for chunk load on server, and if the chunk is present here, it is re-synchronized.
+     * Like {@link #SYNC_QUEUE}, this is only accessed from the server thread (chunk watch, unwatch and load events), so it is not synchronized.
      */
     public static final WatchQueue WATCH_QUEUE = new WatchQueue();
 
+    /**
+     * This is a per-player queue of chunk watch and unwatch updates, which are sent to each player as a single packet at the end of the tick.
+     * This is only accessed from the server thread, so it is not synchronized.
+     */
+    public static final SyncQueue SYNC_QUEUE = new SyncQueue();
+
     /**
      * Gets the normal (not world gen) cache of chunk data for the current logical side
      */
@@ -54,79 +72,298 @@ public final class ChunkDataCache
         return Helpers.isClientSide(world) ? CLIENT : SERVER;
     }
 
-    private final Map<ChunkPos, ChunkData> cache;
+    private static final int STRIPES = 16; // Must be a power of two
+
+    private final Stripe[] stripes;
     private final String name;
+    private final int maxSize;
 
-    private ChunkDataCache(String name)
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize The maximum number of entries, past which the least recently added entries are evicted. This is approximate, as it is enforced per stripe.
+     */
+    public ChunkDataCache(String name, int maxSize)
     {
         this.name = name;
-        this.cache = new HashMap<>();
+        this.maxSize = maxSize;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++)
+        {
+            stripes[i] = new Stripe(Math.max(1, maxSize / STRIPES));
+        }
     }
 
     @Nullable
     public ChunkData get(ChunkPos pos)
     {
-        return cache.get(pos);
+        return get(pos.toLong());
+    }
+
+    @Nullable
+    public ChunkData get(long pos)
+    {
+        final Stripe stripe = stripe(pos);
+        final ChunkData data;
+        synchronized (stripe)
+        {
+            data = stripe.map.get(pos);
+        }
+        (data != null ? hits : misses).increment();
+        return data;
     }
 
     @Nullable
     public ChunkData remove(ChunkPos pos)
     {
-        return cache.remove(pos);
+        return remove(pos.toLong());
+    }
+
+    @Nullable
+    public ChunkData remove(long pos)
+    {
+        final Stripe stripe = stripe(pos);
+        synchronized (stripe)
+        {
+            return stripe.map.remove(pos);
+        }
     }
 
     public void update(ChunkPos pos, ChunkData data)
     {
-        cache.put(pos, data);
+        final long key = pos.toLong();
+        final Stripe stripe = stripe(key);
+        synchronized (stripe)
+        {
+            stripe.map.putAndMoveToLast(key, data);
+            evict(stripe);
+        }
     }
 
+    /**
+     * The mapping function is called while holding a lock, so it must be cheap, and not access this cache.
+     */
     public ChunkData computeIfAbsent(ChunkPos pos, Function<ChunkPos, ChunkData> mappingFunction)
     {
-        return cache.computeIfAbsent(pos, mappingFunction);
+        final long key = pos.toLong();
+        final Stripe stripe = stripe(key);
+        synchronized (stripe)
+        {
+            ChunkData data = stripe.map.get(key);
+            if (data == null)
+            {
+                data = mappingFunction.apply(pos);
+                stripe.map.put(key, data);
+                evict(stripe);
+            }
+            return data;
+        }
+    }
+
+    public int size()
+    {
+        int size = 0;
+        for (Stripe stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                size += stripe.map.size();
+            }
+        }
+        return size;
+    }
+
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    private Stripe stripe(long pos)
+    {
+        return stripes[(int) HashCommon.mix(pos) & (STRIPES - 1)];
+    }
+
+    private void evict(Stripe stripe)
+    {
+        while (stripe.map.size() > stripe.maxSize)
+        {
+            stripe.map.removeFirst();
+            evictions.increment();
+        }
     }
 
     @Override
     public String toString()
     {
-        return "ChunkDataCache[" + name + ']';
+        return "ChunkDataCache[" + name + ", size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + ']';
     }
 
     public static class WatchQueue
     {
-        private final Map<ChunkPos, Set<ServerPlayer>> queue;
+        private final Long2ObjectMap<Set<ServerPlayer>> queue;
 
         private WatchQueue()
         {
-            queue = new HashMap<>(256);
+            queue = new Long2ObjectOpenHashMap<>(256);
         }
 
         public void enqueueUnloadedChunk(ChunkPos pos, ServerPlayer player)
         {
-            queue.computeIfAbsent(pos, key -> new HashSet<>()).add(player);
+            queue.computeIfAbsent(pos.toLong(), key -> new HashSet<>()).add(player);
         }
 
         public void dequeueChunk(ChunkPos pos, ServerPlayer player)
         {
-            Set<ServerPlayer> players = queue.get(pos);
+            final long key = pos.toLong();
+            final Set<ServerPlayer> players = queue.get(key);
             if (players != null)
             {
                 players.remove(player);
                 if (players.isEmpty())
                 {
-                    queue.remove(pos);
+                    queue.remove(key);
                 }
             }
         }
 
         public void dequeueLoadedChunk(ChunkPos pos, ChunkData data)
         {
-            if (queue.containsKey(pos))
+            final Set<ServerPlayer> players = queue.remove(pos.toLong());
+            if (players != null)
             {
-                final Set<ServerPlayer> players = queue.remove(pos);
                 for (ServerPlayer player : players)
                 {
-                    PacketHandler.send(PacketDistributor.PLAYER.with(() -> player), data.getUpdatePacket());
+                    SYNC_QUEUE.watch(player, data);
+                }
+            }
+        }
+    }
+
+    private static final class Stripe
+    {
+        final Long2ObjectLinkedOpenHashMap<ChunkData> map = new Long2ObjectLinkedOpenHashMap<>();
+        final int maxSize;
+
+        Stripe(int maxSize)
+        {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * On login, or teleport, a player will watch hundreds of chunks within a single tick. Rather than sending a packet for each, they are collected here and sent as a single {@link ChunkWatchPacket}.
+     * A chunk which is both watched and unwatched within a tick only sends the last of the two.
+     */
+    public static class SyncQueue
+    {
+        public static final int MAX_CHUNKS_PER_PACKET = 4096; // Keeps a single packet well below the maximum payload size
+
+        private final Map<ServerPlayer, Batch> batches;
+
+        private SyncQueue()
+        {
+            batches = new HashMap<>();
+        }
+
+        public void watch(ServerPlayer player, ChunkData data)
+        {
+            batches.computeIfAbsent(player, key -> new Batch()).watch(data);
+        }
+
+        public void unwatch(ServerPlayer player, ChunkPos pos)
+        {
+            batches.computeIfAbsent(player, key -> new Batch()).unwatch(pos.toLong());
+        }
+
+        /**
+         * Called at the end of the server tick, sends all pending updates.
+         */
+        public void flush()
+        {
+            if (batches.isEmpty())
+            {
+                return;
+            }
+            batches.forEach((player, batch) -> {
+                if (!player.hasDisconnected())
+                {
+                    final PacketDistributor.PacketTarget target = PacketDistributor.PLAYER.with(() -> player);
+                    for (ChunkWatchPacket packet : batch.build())
+                    {
+                        PacketHandler.send(target, packet);
+                    }
+                }
+            });
+            batches.clear();
+        }
+
+        /**
+         * The pending updates for a single player.
+         */
+        public static class Batch
+        {
+            private final LongLinkedOpenHashSet unwatched = new LongLinkedOpenHashSet();
+            private final Long2ObjectLinkedOpenHashMap<ChunkData> watched = new Long2ObjectLinkedOpenHashMap<>();
+
+            public void watch(ChunkData data)
+            {
+                final long pos = data.getPos().toLong();
+                unwatched.remove(pos);
+                watched.put(pos, data);
+            }
+
+            public void unwatch(long pos)
+            {
+                watched.remove(pos);
+                unwatched.add(pos);
+            }
+
+            /**
+             * @return The packets to send, each with at most {@link #MAX_CHUNKS_PER_PACKET} chunks. There is always at least one packet.
+             */
+            public List<ChunkWatchPacket> build()
+            {
+                final List<ChunkWatchPacket> packets = new ArrayList<>();
+                LongArrayList unwatchedPacket = new LongArrayList();
+                List<ChunkWatchPacket.Entry> watchedPacket = new ArrayList<>();
+                for (long pos : unwatched)
+                {
+                    if (unwatchedPacket.size() >= MAX_CHUNKS_PER_PACKET)
+                    {
+                        packets.add(new ChunkWatchPacket(unwatchedPacket, watchedPacket));
+                        unwatchedPacket = new LongArrayList();
+                    }
+                    unwatchedPacket.add(pos);
+                }
+                for (ChunkData data : watched.values())
+                {
+                    if (unwatchedPacket.size() + watchedPacket.size() >= MAX_CHUNKS_PER_PACKET)
+                    {
+                        packets.add(new ChunkWatchPacket(unwatchedPacket, watchedPacket));
+                        unwatchedPacket = new LongArrayList();
+                        watchedPacket = new ArrayList<>();
+                    }
+                    watchedPacket.add(data.getUpdateEntry());
                 }
+                packets.add(new ChunkWatchPacket(unwatchedPacket, watchedPacket));
+                return packets;
             }
         }
     }
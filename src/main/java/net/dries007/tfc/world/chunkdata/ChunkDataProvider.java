@@ -89,8 +89,16 @@ public final class ChunkDataProvider
             });
             if (data.getStatus() == ChunkData.Status.EMPTY)
             {
-                generator.generate(data);
-                data.setStatus(ChunkData.Status.FULL);
+                // Multiple worldgen threads may query the same chunk at once (i.e. async biome filling, and adjacent chunks).
+                // Generation must only happen once, as a second pass would overwrite values which are set later during generation.
+                synchronized (data)
+                {
+                    if (data.getStatus() == ChunkData.Status.EMPTY)
+                    {
+                        generator.generate(data);
+                        data.setStatus(ChunkData.Status.FULL);
+                    }
+                }
             }
             return data;
         }
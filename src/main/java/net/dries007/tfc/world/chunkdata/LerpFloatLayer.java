@@ -17,15 +17,9 @@ import net.dries007.tfc.util.Helpers;
  */
 public class LerpFloatLayer
 {
-    private final float valueNW, valueNE, valueSW, valueSE;
+    private static final float QUANTIZE_SCALE = 100f; // Rainfall and temperature are only ever displayed to one decimal place
 
-    public LerpFloatLayer(FriendlyByteBuf buffer)
-    {
-        valueNW = buffer.readFloat();
-        valueNE = buffer.readFloat();
-        valueSW = buffer.readFloat();
-        valueSE = buffer.readFloat();
-    }
+    private final float valueNW, valueNE, valueSW, valueSE;
 
     public LerpFloatLayer(CompoundTag nbt)
     {
@@ -64,11 +58,32 @@ public class LerpFloatLayer
         return nbt;
     }
 
-    public void encode(FriendlyByteBuf buffer)
+    /**
+     * Encodes the values, rounded to the nearest {@code 1 / QUANTIZE_SCALE}. The north west value is written in full, and the others as a difference from it, as values within a chunk are typically close together.
+     */
+    public void encodeQuantized(FriendlyByteBuf buffer)
+    {
+        final int nw = quantize(valueNW);
+        Helpers.writeSignedVarInt(buffer, nw);
+        Helpers.writeSignedVarInt(buffer, quantize(valueNE) - nw);
+        Helpers.writeSignedVarInt(buffer, quantize(valueSW) - nw);
+        Helpers.writeSignedVarInt(buffer, quantize(valueSE) - nw);
+    }
+
+    /**
+     * Decodes a layer written by {@link #encodeQuantized(FriendlyByteBuf)}
+     */
+    public static LerpFloatLayer decodeQuantized(FriendlyByteBuf buffer)
+    {
+        final int nw = Helpers.readSignedVarInt(buffer);
+        final int ne = nw + Helpers.readSignedVarInt(buffer);
+        final int sw = nw + Helpers.readSignedVarInt(buffer);
+        final int se = nw + Helpers.readSignedVarInt(buffer);
+        return new LerpFloatLayer(nw / QUANTIZE_SCALE, ne / QUANTIZE_SCALE, sw / QUANTIZE_SCALE, se / QUANTIZE_SCALE);
+    }
+
+    private static int quantize(float value)
     {
-        buffer.writeFloat(valueNW);
-        buffer.writeFloat(valueNE);
-        buffer.writeFloat(valueSW);
-        buffer.writeFloat(valueSE);
+        return Math.round(value * QUANTIZE_SCALE);
     }
 }
\ No newline at end of file
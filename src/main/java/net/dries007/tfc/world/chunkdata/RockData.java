@@ -11,8 +11,14 @@ import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
-
-import net.dries007.tfc.util.Helpers;
+import net.minecraft.nbt.Tag;
+import net.minecraft.util.BitStorage;
+import net.minecraft.util.Mth;
+import net.minecraft.util.SimpleBitStorage;
+import net.minecraft.util.ZeroBitStorage;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import net.dries007.tfc.world.settings.RockLayerSettings;
 import net.dries007.tfc.world.settings.RockSettings;
 
@@ -21,6 +27,7 @@ import static net.dries007.tfc.world.TFCChunkGenerator.SEA_LEVEL_Y;
 public class RockData
 {
     private static final int SIZE = 16 * 16;
+    private static final int LAYERS = 3;
 
     private static int index(int x, int z)
     {
@@ -49,11 +56,31 @@ public class RockData
         this.middleLayer = new RockSettings[SIZE];
         this.topLayer = new RockSettings[SIZE];
 
-        read(bottomLayer, nbt.getIntArray("bottomLayer"), settings);
-        read(middleLayer, nbt.getIntArray("middleLayer"), settings);
-        read(topLayer, nbt.getIntArray("topLayer"), settings);
+        if (nbt.contains("palette", Tag.TAG_INT_ARRAY))
+        {
+            readPacked(nbt, settings);
+        }
+        else
+        {
+            // Legacy format, with an int array per layer
+            read(bottomLayer, nbt.getIntArray("bottomLayer"), settings);
+            read(middleLayer, nbt.getIntArray("middleLayer"), settings);
+            read(topLayer, nbt.getIntArray("topLayer"), settings);
+        }
 
-        rockLayerHeight = nbt.getIntArray("height");
+        if (nbt.contains("height", Tag.TAG_BYTE_ARRAY))
+        {
+            final byte[] height = nbt.getByteArray("height");
+            rockLayerHeight = new int[SIZE];
+            for (int i = 0; i < SIZE; i++)
+            {
+                rockLayerHeight[i] = height[i];
+            }
+        }
+        else
+        {
+            rockLayerHeight = nbt.getIntArray("height");
+        }
         surfaceHeight = nbt.contains("surfaceHeight") ? nbt.getIntArray("surfaceHeight") : null;
     }
 
@@ -103,16 +130,50 @@ public class RockData
         this.surfaceHeight = surfaceHeightMap;
     }
 
+    /**
+     * Rocks are written as a palette of the rocks present in this chunk (as ids into {@link RockLayerSettings#getRocks()}), followed by the index into that palette for every position of each layer, bit packed.
+     * Most chunks only contain a handful of rocks, so this is typically a few bits per position, and a chunk with a single rock needs no storage at all besides the palette.
+     */
     public CompoundTag write(RockLayerSettings settings)
     {
         final CompoundTag nbt = new CompoundTag();
 
-        // Record the raw byte values
-        nbt.putIntArray("bottomLayer", write(bottomLayer, settings));
-        nbt.putIntArray("middleLayer", write(middleLayer, settings));
-        nbt.putIntArray("topLayer", write(topLayer, settings));
+        final int[] paletteIndexById = new int[settings.getRocks().size()]; // Rock id -> 1 + index in the palette, or 0 if not yet present
+        final IntList palette = new IntArrayList();
+        final int[] indexes = new int[LAYERS * SIZE];
+
+        int i = 0;
+        for (RockSettings[] layer : new RockSettings[][] {bottomLayer, middleLayer, topLayer})
+        {
+            for (RockSettings rock : layer)
+            {
+                final int id = settings.getRockId(rock);
+                if (paletteIndexById[id] == 0)
+                {
+                    palette.add(id);
+                    paletteIndexById[id] = palette.size();
+                }
+                indexes[i++] = paletteIndexById[id] - 1;
+            }
+        }
+
+        final BitStorage storage = createStorage(palette.size(), null);
+        for (i = 0; i < indexes.length; i++)
+        {
+            storage.set(i, indexes[i]);
+        }
+
+        nbt.putIntArray("palette", palette.toIntArray());
+        nbt.putLongArray("rocks", storage.getRaw());
+
+        // Rock layer heights are in [-10, 10], so they fit in a byte
+        final byte[] height = new byte[SIZE];
+        for (i = 0; i < SIZE; i++)
+        {
+            height[i] = (byte) rockLayerHeight[i];
+        }
+        nbt.putByteArray("height", height);
 
-        nbt.putIntArray("height", rockLayerHeight);
         if (surfaceHeight != null)
         {
             nbt.putIntArray("surfaceHeight", surfaceHeight);
@@ -120,15 +181,25 @@ public class RockData
         return nbt;
     }
 
-    private int[] write(RockSettings[] layer, RockLayerSettings settings)
+    private void readPacked(CompoundTag nbt, RockLayerSettings settings)
     {
-        final int[] array = new int[SIZE];
-        final List<RockSettings> palette = settings.getRocks();
-        for (int i = 0; i < array.length; i++)
+        final List<RockSettings> rocks = settings.getRocks();
+        final int[] paletteIds = nbt.getIntArray("palette");
+        final RockSettings[] palette = new RockSettings[paletteIds.length];
+        for (int i = 0; i < palette.length; i++)
+        {
+            palette[i] = rocks.get(paletteIds[i]);
+        }
+
+        final BitStorage storage = createStorage(palette.length, nbt.getLongArray("rocks"));
+        int i = 0;
+        for (RockSettings[] layer : new RockSettings[][] {bottomLayer, middleLayer, topLayer})
         {
-            array[i] = palette.indexOf(layer[i]); // indexOf() is O(n) but should be fast enough for our purposes, this isn't called that often
+            for (int j = 0; j < SIZE; j++)
+            {
+                layer[j] = palette[storage.get(i++)];
+            }
         }
-        return array;
     }
 
     private void read(RockSettings[] layer, int[] data, RockLayerSettings settings)
@@ -141,4 +212,10 @@ public class RockData
             layer[i] = palette.get(data[i]);
         }
     }
+
+    private BitStorage createStorage(int paletteSize, @Nullable long[] data)
+    {
+        final int bits = Mth.ceillog2(paletteSize);
+        return bits == 0 ? new ZeroBitStorage(LAYERS * SIZE) : new SimpleBitStorage(bits, LAYERS * SIZE, data);
+    }
 }
\ No newline at end of file
@@ -28,7 +28,6 @@ public final class TrilinearInterpolator
     private double[][] slice1;
     private double noise000, noise001, noise100, noise101, noise010, noise011, noise110, noise111;
     private double valueX0Z, valueX1Z;
-    private double valueXYZ;
 
     public TrilinearInterpolator(ChunkNoiseSamplingSettings settings, Source source)
     {
@@ -44,6 +43,16 @@ public final class TrilinearInterpolator
         fillSlice(slice0, settings.firstCellX());
     }
 
+    /**
+     * Fills both slices for the given cell x, without requiring any previous cells to have been sampled.
+     * This is equivalent to {@link #initializeForFirstCellX()} followed by {@link #advanceCellX(int)} and {@link #swapSlices()} for every previous cell, and is used to interpolate a single cell x independently of the others.
+     */
+    public void initializeForCellX(int cellX)
+    {
+        fillSlice(slice0, settings.firstCellX() + cellX);
+        fillSlice(slice1, settings.firstCellX() + cellX + 1);
+    }
+
     public void advanceCellX(int cellX)
     {
         fillSlice(slice1, settings.firstCellX() + cellX + 1);
@@ -72,14 +81,20 @@ public final class TrilinearInterpolator
         valueX1Z = Mth.lerp(z, valueX10, valueX11);
     }
 
-    public void updateForY(double y)
-    {
-        valueXYZ = Mth.lerp(y, valueX0Z, valueX1Z);
-    }
-
-    public double sample()
+    /**
+     * Samples every y position within the current cell at once, equivalent to interpolating between the selected x/z values at each {@code localCellY / cellHeight}.
+     * This is a simple loop over primitive values, which is much friendlier to the JIT (and auto-vectorization) than querying a single position at a time.
+     *
+     * @param values An array of at least {@code cellHeight} length, which is filled with the sampled values, indexed by local cell y.
+     */
+    public void sampleCellY(double[] values)
     {
-        return this.valueXYZ;
+        final int cellHeight = settings.cellHeight();
+        final double valueX0Z = this.valueX0Z, delta = this.valueX1Z - valueX0Z;
+        for (int localCellY = 0; localCellY < cellHeight; localCellY++)
+        {
+            values[localCellY] = valueX0Z + ((double) localCellY / cellHeight) * delta;
+        }
     }
 
     public void swapSlices()
@@ -120,21 +120,34 @@ public class MidpointFractal
     public Flow intersectWithFlow(float x, float y, float distance)
     {
         final int i = intersectIndex(x, y, distance * distance);
-        if (i != -1)
-        {
-            float sourceX = segments[i], sourceY = segments[i + 1], drainX = segments[i + 2], drainY = segments[i + 3];
-            float angle = (float) Mth.atan2(-(drainY - sourceY), drainX - sourceX);
-            return Flow.fromAngle(angle);
-        }
-        return Flow.NONE;
+        return i != -1 ? flowAt(i) : Flow.NONE;
+    }
+
+    /**
+     * @param i The index of a segment, that is the index of its source x in {@link #segments}.
+     * @return {@code true} if the provided point (x, y) is strictly within a squared distance {@code distSq} of the segment.
+     */
+    public boolean intersectSegment(int i, float x, float y, float distSq)
+    {
+        return RiverHelpers.distancePointToLineSq(segments[i], segments[i + 1], segments[i + 2], segments[i + 3], x, y) < distSq;
+    }
+
+    /**
+     * @param i The index of a segment, that is the index of its source x in {@link #segments}.
+     * @return A vector describing the flow of the river along the segment.
+     */
+    public Flow flowAt(int i)
+    {
+        float sourceX = segments[i], sourceY = segments[i + 1], drainX = segments[i + 2], drainY = segments[i + 3];
+        float angle = (float) Mth.atan2(-(drainY - sourceY), drainX - sourceX);
+        return Flow.fromAngle(angle);
     }
 
     private int intersectIndex(float x, float y, float distSq)
     {
         for (int i = 0; i < segments.length - 2; i += 2)
         {
-            float d = RiverHelpers.distancePointToLineSq(segments[i], segments[i + 1], segments[i + 2], segments[i + 3], x, y);
-            if (d < distSq)
+            if (intersectSegment(i, x, y, distSq))
             {
                 return i;
             }
@@ -0,0 +1,182 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.world.river;
+
+import java.util.List;
+
+import net.minecraft.util.Mth;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * All river fractals which may intersect a single partition of the world, see {@link Watershed.Context#getPartition(int, int)}.
+ * Segments of each fractal are indexed by a uniform grid over the partition, so an intersection query only tests the segments which come near the queried point, rather than every segment of every fractal.
+ * Within each grid cell, segments are ordered by fractal, then by segment, so queries return the same result as testing each fractal in order.
+ */
+public final class RiverPartition
+{
+    private static final int GRID_SIZE = 8; // Cells per side. With the default partition size, this is one cell per chunk.
+    private static final float EPSILON = 1e-4f; // Extra margin around each segment, to account for float error in the distance calculation
+
+    private final List<MidpointFractal> fractals;
+    private final float minX, minZ;
+    private final float cellScale; // Inverse of the cell width
+    private final float maxDistance;
+
+    private final int[] cellStart; // Index into the entries for each cell, with an extra trailing index
+    private final int[] entryFractals; // Index into fractals
+    private final int[] entrySegments; // Index into MidpointFractal#segments
+
+    /**
+     * @param fractals    The fractals which may intersect this partition, in order.
+     * @param minX        The minimum x of the partition, in watershed coordinates.
+     * @param minZ        The minimum z of the partition, in watershed coordinates.
+     * @param width       The width of the partition, in watershed coordinates.
+     * @param maxDistance The maximum distance that will be queried.
+     */
+    public RiverPartition(List<MidpointFractal> fractals, float minX, float minZ, float width, float maxDistance)
+    {
+        this.fractals = fractals;
+        this.minX = minX;
+        this.minZ = minZ;
+        this.cellScale = GRID_SIZE / width;
+        this.maxDistance = maxDistance;
+
+        final IntArrayList[] cells = new IntArrayList[GRID_SIZE * GRID_SIZE];
+        for (int i = 0; i < cells.length; i++)
+        {
+            cells[i] = new IntArrayList();
+        }
+
+        // Each entry is added as a pair of (fractal, segment), to the cells overlapping the bounding box of the segment, expanded by the max distance
+        final float margin = maxDistance + EPSILON;
+        for (int fractalIndex = 0; fractalIndex < fractals.size(); fractalIndex++)
+        {
+            final float[] segments = fractals.get(fractalIndex).segments;
+            for (int i = 0; i < segments.length - 2; i += 2)
+            {
+                final float x0 = segments[i], z0 = segments[i + 1], x1 = segments[i + 2], z1 = segments[i + 3];
+                if (x0 == x1 && z0 == z1)
+                {
+                    // Zero length segments are treated as intersecting everywhere by RiverHelpers#distancePointToLineSq(), so they go in every cell
+                    for (IntArrayList cell : cells)
+                    {
+                        cell.add(fractalIndex);
+                        cell.add(i);
+                    }
+                    continue;
+                }
+
+                final float minSegmentX = Math.min(x0, x1) - margin, maxSegmentX = Math.max(x0, x1) + margin;
+                final float minSegmentZ = Math.min(z0, z1) - margin, maxSegmentZ = Math.max(z0, z1) + margin;
+                if (maxSegmentX < minX || minSegmentX > minX + width || maxSegmentZ < minZ || minSegmentZ > minZ + width)
+                {
+                    continue; // Entirely outside the partition
+                }
+
+                final int minCellX = cellX(minSegmentX), maxCellX = cellX(maxSegmentX);
+                final int minCellZ = cellZ(minSegmentZ), maxCellZ = cellZ(maxSegmentZ);
+                for (int cellX = minCellX; cellX <= maxCellX; cellX++)
+                {
+                    for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++)
+                    {
+                        final IntArrayList cell = cells[cellX + GRID_SIZE * cellZ];
+                        cell.add(fractalIndex);
+                        cell.add(i);
+                    }
+                }
+            }
+        }
+
+        int size = 0;
+        for (IntArrayList cell : cells)
+        {
+            size += cell.size() >> 1;
+        }
+
+        this.cellStart = new int[cells.length + 1];
+        this.entryFractals = new int[size];
+        this.entrySegments = new int[size];
+
+        int index = 0;
+        for (int i = 0; i < cells.length; i++)
+        {
+            cellStart[i] = index;
+            final IntArrayList cell = cells[i];
+            for (int j = 0; j < cell.size(); j += 2)
+            {
+                entryFractals[index] = cell.getInt(j);
+                entrySegments[index] = cell.getInt(j + 1);
+                index++;
+            }
+        }
+        cellStart[cells.length] = index;
+    }
+
+    public List<MidpointFractal> getFractals()
+    {
+        return fractals;
+    }
+
+    /**
+     * Equivalent to checking {@link MidpointFractal#maybeIntersect(float, float, float)} and {@link MidpointFractal#intersect(float, float, float)} for each fractal.
+     *
+     * @return {@code true} if the provided point (x, z), which must be within this partition, comes within a minimum {@code distance} of any fractal.
+     */
+    public boolean intersect(float x, float z, float distance)
+    {
+        return intersectIndex(x, z, distance) != -1;
+    }
+
+    /**
+     * Equivalent to checking {@link MidpointFractal#maybeIntersect(float, float, float)} and {@link MidpointFractal#intersectWithFlow(float, float, float)} for each fractal.
+     *
+     * @return A vector describing the flow of the river at the provided point (x, z), which must be within this partition, if it comes within a minimum {@code distance} of any fractal.
+     */
+    public Flow intersectWithFlow(float x, float z, float distance)
+    {
+        final int index = intersectIndex(x, z, distance);
+        return index != -1 ? fractals.get(entryFractals[index]).flowAt(entrySegments[index]) : Flow.NONE;
+    }
+
+    private int intersectIndex(float x, float z, float distance)
+    {
+        assert distance <= maxDistance : "Distance is larger than the partition was built for";
+
+        final float distSq = distance * distance;
+        final int cell = cellX(x) + GRID_SIZE * cellZ(z);
+
+        int lastFractalIndex = -1;
+        boolean maybeIntersect = false;
+        for (int index = cellStart[cell]; index < cellStart[cell + 1]; index++)
+        {
+            final int fractalIndex = entryFractals[index];
+            final MidpointFractal fractal = fractals.get(fractalIndex);
+            if (fractalIndex != lastFractalIndex)
+            {
+                // maybeIntersect will skip the more expensive calculation for the rest of this fractal's segments if it fails
+                lastFractalIndex = fractalIndex;
+                maybeIntersect = fractal.maybeIntersect(x, z, distance);
+            }
+            if (maybeIntersect && fractal.intersectSegment(entrySegments[index], x, z, distSq))
+            {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private int cellX(float x)
+    {
+        return Mth.clamp(Mth.floor((x - minX) * cellScale), 0, GRID_SIZE - 1);
+    }
+
+    private int cellZ(float z)
+    {
+        return Mth.clamp(Mth.floor((z - minZ) * cellScale), 0, GRID_SIZE - 1);
+    }
+}
@@ -9,7 +9,10 @@ package net.dries007.tfc.world.river;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.levelgen.RandomSource;
@@ -24,6 +27,7 @@ import net.dries007.tfc.world.FastConcurrentCache;
 import net.dries007.tfc.world.layer.Plate;
 import net.dries007.tfc.world.layer.framework.TypedArea;
 import net.dries007.tfc.world.layer.framework.TypedAreaFactory;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 public abstract class Watershed
@@ -38,7 +42,7 @@ public abstract class Watershed
 
         if (root.oceanic())
         {
-            return new Empty(root);
+            return new Empty(root, null);
         }
 
         // Flood fill the plate region, to find the extent of the watershed
@@ -74,7 +78,7 @@ public abstract class Watershed
 
         if (sources.isEmpty())
         {
-            return new Empty(root); // No sources, so no rivers.
+            return new Empty(root, interior); // No sources, so no rivers.
         }
 
         // Seed and generate a new rivers instance
@@ -91,6 +95,13 @@ public abstract class Watershed
 
     public abstract List<RiverFractal> getRivers();
 
+    /**
+     * A single plate may cover multiple disconnected regions, each of which is a separate watershed.
+     *
+     * @return {@code true} if the watershed cell at {@code (x, z)} is part of this watershed.
+     */
+    public abstract boolean contains(int x, int z);
+
     public Plate getPlate()
     {
         return plate;
@@ -113,9 +124,12 @@ public abstract class Watershed
 
     static class Empty extends Watershed
     {
-        Empty(Plate plate)
+        @Nullable private final LongSet interior; // null for oceanic plates, which are always empty
+
+        Empty(Plate plate, @Nullable LongSet interior)
         {
             super(plate);
+            this.interior = interior;
         }
 
         @Override
@@ -123,6 +137,12 @@ public abstract class Watershed
         {
             return Collections.emptyList();
         }
+
+        @Override
+        public boolean contains(int x, int z)
+        {
+            return interior == null || interior.contains(RiverHelpers.pack(x, z));
+        }
     }
 
     public static class Rivers extends Watershed
@@ -171,6 +191,12 @@ public abstract class Watershed
             return rivers;
         }
 
+        @Override
+        public boolean contains(int x, int z)
+        {
+            return interior.contains(RiverHelpers.pack(x, z));
+        }
+
         @VisibleForTesting
         public LongSet getSources()
         {
@@ -199,6 +225,7 @@ public abstract class Watershed
 
         private static final int WATERSHED_CACHE_BITS = 8;
         private static final int PARTITION_CACHE_BITS = 10;
+        private static final int MAX_CACHED_PLATES = 256;
 
         /**
          * The diagonal from the center of a unit cell, to the corner.
@@ -209,7 +236,11 @@ public abstract class Watershed
 
         private final ThreadLocal<TypedArea<Plate>> plates;
         private final FastConcurrentCache<Watershed> watershedCache;
-        private final FastConcurrentCache<List<MidpointFractal>> partitionCache;
+        private final FastConcurrentCache<RiverPartition> partitionCache;
+        private final Map<Plate, List<Watershed>> watershedsByPlate; // Every watershed built so far, per plate
+
+        private final LongAdder watershedBuilds = new LongAdder();
+        private final LongAdder watershedPlateHits = new LongAdder();
 
         private final long seed;
         private final float sourceChance;
@@ -222,6 +253,7 @@ public abstract class Watershed
             this.plates = ThreadLocal.withInitial(plates);
             this.watershedCache = new FastConcurrentCache<>(1 << WATERSHED_CACHE_BITS);
             this.partitionCache = new FastConcurrentCache<>(1 << PARTITION_CACHE_BITS);
+            this.watershedsByPlate = new ConcurrentHashMap<>();
             this.seed = seed;
             this.sourceChance = sourceChance;
             this.length = length;
@@ -234,11 +266,12 @@ public abstract class Watershed
          * Partition coordinates are quart positions shifted by {@link #PARTITION_BITS}.
          * Watershed coordinates are quart positions shifted by {@link #ZOOM_BITS}. (Based on the total amount of zoom layers used between plate layers and the final biome area.)
          * In order to compute the partition, we query the four adjacent watersheds, which may overlap the partition area.
+         * The fractals in the partition are then indexed by position, so queries only need to test nearby segments.
          */
-        public List<MidpointFractal> getFractalsByPartition(int x, int z)
+        public RiverPartition getPartition(int x, int z)
         {
             final int px = x >> PARTITION_BITS, pz = z >> PARTITION_BITS;
-            List<MidpointFractal> partition = partitionCache.getIfPresent(px, pz);
+            RiverPartition partition = partitionCache.getIfPresent(px, pz);
             if (partition == null)
             {
                 // Locate the four closest adjacent watersheds.
@@ -259,7 +292,7 @@ public abstract class Watershed
                 final float x1 = partitionToWatershedScale * partitionCenterX, z1 = partitionToWatershedScale * partitionCenterZ;
                 final float radius = partitionToWatershedScale * (PARTITION_RADIUS + 2 * RIVER_WIDTH);
 
-                partition = new ArrayList<>(32);
+                final List<MidpointFractal> fractals = new ArrayList<>(32);
                 for (Watershed shed : nearbySheds)
                 {
                     for (RiverFractal river : shed.getRivers())
@@ -268,13 +301,14 @@ public abstract class Watershed
                         {
                             if (fractal.maybeIntersect(x1, z1, radius))
                             {
-                                partition.add(fractal);
+                                fractals.add(fractal);
                             }
                         }
                     }
                 }
 
                 // Enter the resulting partition in the cache
+                partition = new RiverPartition(fractals, px * partitionToWatershedScale, pz * partitionToWatershedScale, partitionToWatershedScale, RIVER_WIDTH);
                 partitionCache.set(px, pz, partition);
             }
             return partition;
@@ -290,10 +324,60 @@ public abstract class Watershed
             Watershed shed = watershedCache.getIfPresent(x, z);
             if (shed == null)
             {
-                shed = Watershed.create(plates.get(), x, z, seed, sourceChance, length, depth, feather);
+                shed = getOrCreateByPlate(x, z);
                 watershedCache.set(x, z, shed);
             }
             return shed;
         }
+
+        /**
+         * @return The number of watersheds which have been built, each of which requires a flood fill of the entire plate.
+         */
+        public long getWatershedBuilds()
+        {
+            return watershedBuilds.sum();
+        }
+
+        /**
+         * @return The number of times a watershed was missing from the per-cell cache, but was found already built for the same plate.
+         */
+        public long getWatershedPlateHits()
+        {
+            return watershedPlateHits.sum();
+        }
+
+        /**
+         * Every cell of a plate would build an identical watershed, so watersheds are additionally cached per plate.
+         * Building is done while holding the plate's entry, so each watershed is only ever built once, while other threads that need the same plate wait for it.
+         */
+        private Watershed getOrCreateByPlate(int x, int z)
+        {
+            final TypedArea<Plate> area = plates.get();
+            final Plate root = area.get(x, z);
+
+            if (watershedsByPlate.size() > MAX_CACHED_PLATES)
+            {
+                // Plates are unbounded across the world, but only nearby ones are queried frequently
+                watershedsByPlate.clear();
+            }
+
+            final List<Watershed> sheds = watershedsByPlate.computeIfAbsent(root, key -> new ArrayList<>(1));
+            synchronized (sheds)
+            {
+                for (Watershed shed : sheds)
+                {
+                    if (shed.contains(x, z))
+                    {
+                        watershedPlateHits.increment();
+                        return shed;
+                    }
+                }
+
+                final Watershed shed = Watershed.create(area, x, z, seed, sourceChance, length, depth, feather);
+                sheds.add(shed);
+                watershedBuilds.increment();
+                return shed;
+            }
+        }
     }
 }
@@ -19,6 +19,8 @@ import net.minecraft.world.level.block.Block;
 import com.mojang.serialization.Codec;
 import com.mojang.serialization.DataResult;
 import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.dries007.tfc.util.Helpers;
 import net.dries007.tfc.world.Codecs;
 
@@ -77,6 +79,7 @@ public class RockLayerSettings
 
     private final Map<ResourceLocation, RockSettings> rocksById;
     private final List<RockSettings> rocks;
+    private final Object2IntMap<RockSettings> rockIds; // Reverse index of rocks
     private final Map<Block, RockSettings> rockBlocks;
     private final Map<Block, Block> rawToHardened;
     private final int rockLayerScale; // In [0, 32]
@@ -89,9 +92,16 @@ public class RockLayerSettings
             .sorted(Map.Entry.comparingByKey())
             .map(Map.Entry::getValue)
             .toList();
+        this.rockIds = new Object2IntOpenHashMap<>();
         this.rockBlocks = new IdentityHashMap<>();
         this.rockLayerScale = rockLayerScale;
 
+        rockIds.defaultReturnValue(-1);
+        for (int i = 0; i < rocks.size(); i++)
+        {
+            rockIds.put(rocks.get(i), i);
+        }
+
         for (RockSettings rock : this.rocksById.values())
         {
             rockBlocks.put(rock.raw(), rock);
@@ -137,6 +147,20 @@ public class RockLayerSettings
         return rocks;
     }
 
+    /**
+     * @return The index of {@code rock} in {@link #getRocks()}. Unlike {@link List#indexOf(Object)}, this is O(1).
+     * @throws IllegalArgumentException if the rock is not part of these settings.
+     */
+    public int getRockId(RockSettings rock)
+    {
+        final int id = rockIds.getInt(rock);
+        if (id == -1)
+        {
+            throw new IllegalArgumentException("Rock " + rock.id() + " is not present in the rock layer settings, which has rocks: " + rocksById.keySet());
+        }
+        return id;
+    }
+
     public List<RockSettings> getRocksForLayer(RockLayer layer)
     {
         return rocks
@@ -0,0 +1,316 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.capabilities;
+
+import java.util.function.Consumer;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.FriendlyByteBuf;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.capabilities.ItemStackCapabilitySync;
+import net.dries007.tfc.common.capabilities.food.FoodData;
+import net.dries007.tfc.common.capabilities.food.FoodHandler;
+import net.dries007.tfc.common.capabilities.food.FoodTraits;
+import net.dries007.tfc.common.capabilities.heat.HeatHandler;
+import net.dries007.tfc.common.capabilities.heat.IHeat;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The compact network format of {@link FoodHandler} and {@link HeatHandler} must round trip to the same state as their NBT serialization.
+ * Food handlers created in tests are non-decaying, as the creation date depends on config values. In order to test creation dates, {@link RawFoodHandler} exposes the stored creation date directly.
+ */
+public class CapabilitySyncCodecTests extends TestHelper
+{
+    @Test
+    public void testHeatRoundTrip()
+    {
+        final HeatHandler expected = new HeatHandler(1, 0, 0);
+        expected.setTemperature(1234.5f);
+
+        final HeatHandler actual = new HeatHandler(1, 0, 0);
+        roundTrip(expected::writeToNetwork, actual::readFromNetwork);
+
+        assertEquals(expected.serializeNBT(), actual.serializeNBT());
+    }
+
+    @Test
+    public void testColdHeatRoundTrip()
+    {
+        final HeatHandler expected = new HeatHandler(1, 0, 0);
+        final HeatHandler actual = new HeatHandler(1, 0, 0);
+        actual.setTemperature(500f);
+
+        roundTrip(expected::writeToNetwork, actual::readFromNetwork);
+
+        assertEquals(expected.serializeNBT(), actual.serializeNBT());
+        assertEquals(0, actual.getTemperature());
+    }
+
+    @Test
+    public void testFoodRoundTrip()
+    {
+        final FoodHandler expected = new FoodHandler(FoodData.EMPTY);
+        expected.getTraits().add(FoodTraits.SALTED);
+        expected.getTraits().add(FoodTraits.WOOD_GRILLED);
+
+        final FoodHandler actual = new FoodHandler(FoodData.EMPTY);
+        actual.getTraits().add(FoodTraits.PICKLED);
+        roundTrip(expected::writeToNetwork, actual::readFromNetwork);
+
+        assertEquals(expected.serializeNBT(), actual.serializeNBT());
+    }
+
+    @Test
+    public void testDynamicFoodRoundTrip()
+    {
+        final FoodHandler.Dynamic expected = new FoodHandler.Dynamic();
+        expected.setFood(new FoodData(4, 1.5f, 2.5f, 0.5f, 0.25f, 1f, 3f, 0f, 1.2f));
+        expected.getTraits().add(FoodTraits.PRESERVED);
+
+        final FoodHandler.Dynamic actual = new FoodHandler.Dynamic();
+        roundTrip(expected::writeToNetwork, actual::readFromNetwork);
+
+        assertEquals(expected.serializeNBT(), actual.serializeNBT());
+        assertEquals(expected.getData(), actual.getData());
+    }
+
+    @Test
+    public void testDynamicFoodIsFullyReadByStaticHandler()
+    {
+        final FoodHandler.Dynamic expected = new FoodHandler.Dynamic();
+        expected.setFood(new FoodData(4, 1.5f, 2.5f, 0.5f, 0.25f, 1f, 3f, 0f, 1.2f));
+
+        final FoodHandler actual = new FoodHandler(FoodData.EMPTY);
+        roundTrip(expected::writeToNetwork, actual::readFromNetwork);
+
+        assertEquals(FoodData.EMPTY, actual.getData());
+    }
+
+    @Test
+    public void testCreationDateRoundTrip()
+    {
+        for (long date : new long[] {0, 1, 24000, FoodHandler.UNKNOWN_CREATION_DATE, FoodHandler.NEVER_DECAY_CREATION_DATE, FoodHandler.ROTTEN_DATE, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE + 1})
+        {
+            final RawFoodHandler expected = new RawFoodHandler();
+            expected.setCreationDate(date);
+            expected.getTraits().add(FoodTraits.SALTED);
+
+            final RawFoodHandler actual = new RawFoodHandler();
+            roundTrip(expected::writeToNetwork, actual::readFromNetwork);
+
+            assertEquals(date, actual.getCreationDate());
+            assertEquals(expected.serializeNBT(), actual.serializeNBT());
+        }
+    }
+
+    @Test
+    public void testSentinelCreationDatesAreSmall()
+    {
+        for (long date : new long[] {FoodHandler.UNKNOWN_CREATION_DATE, FoodHandler.NEVER_DECAY_CREATION_DATE, FoodHandler.ROTTEN_DATE})
+        {
+            final RawFoodHandler food = new RawFoodHandler();
+            food.setCreationDate(date);
+
+            final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+            food.writeToNetwork(buffer);
+            assertEquals(3, buffer.writerIndex(), "Creation date " + date + " should be written as a single byte, followed by the trait count and dynamic flag");
+        }
+    }
+
+    @Test
+    public void testSyncWithoutCapabilities()
+    {
+        final HeatHandler heat = new HeatHandler(1, 0, 0);
+        heat.setTemperature(500f);
+
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        ItemStackCapabilitySync.writeToNetwork(null, null, buffer);
+        assertEquals(1, buffer.writerIndex());
+        assertEquals(0, buffer.getByte(0));
+
+        ItemStackCapabilitySync.readFromNetwork(null, heat, buffer);
+        assertEquals(0, buffer.readableBytes());
+        assertEquals(500f, heat.getTemperature(), "Capabilities should be untouched when none were written");
+    }
+
+    @Test
+    public void testSyncCompact()
+    {
+        final RawFoodHandler expectedFood = new RawFoodHandler();
+        expectedFood.setCreationDate(123456);
+        expectedFood.getTraits().add(FoodTraits.BRINED);
+        final HeatHandler expectedHeat = new HeatHandler(1, 0, 0);
+        expectedHeat.setTemperature(1234.5f);
+
+        final RawFoodHandler actualFood = new RawFoodHandler();
+        final HeatHandler actualHeat = new HeatHandler(1, 0, 0);
+        final FriendlyByteBuf buffer = roundTrip(buf -> ItemStackCapabilitySync.writeToNetwork(expectedFood, expectedHeat, buf), buf -> ItemStackCapabilitySync.readFromNetwork(actualFood, actualHeat, buf));
+
+        assertEquals(2, buffer.getByte(0), "Header should be the format version");
+        assertEquals(expectedFood.serializeNBT(), actualFood.serializeNBT());
+        assertEquals(expectedHeat.serializeNBT(), actualHeat.serializeNBT());
+    }
+
+    @Test
+    public void testSyncFallsBackToNbt()
+    {
+        final NbtHeat expected = new NbtHeat();
+        expected.setTemperature(321f);
+
+        final NbtHeat actual = new NbtHeat();
+        final FriendlyByteBuf buffer = roundTrip(buf -> ItemStackCapabilitySync.writeToNetwork(null, expected, buf), buf -> ItemStackCapabilitySync.readFromNetwork(null, actual, buf));
+
+        assertEquals(2, buffer.getByte(0), "Header should be the format version");
+        assertEquals(0, buffer.getByte(1), "Food should be absent");
+        assertEquals(1, buffer.getByte(2), "Heat should be written as NBT");
+        assertEquals(321f, actual.getTemperature());
+    }
+
+    @Test
+    public void testSyncIsFullyReadByMismatchedCapabilities()
+    {
+        final RawFoodHandler food = new RawFoodHandler();
+        food.setCreationDate(123456);
+        final HeatHandler heat = new HeatHandler(1, 0, 0);
+        heat.setTemperature(1234.5f);
+
+        // Compact data, read into a capability that is absent or of a different type
+        final NbtHeat nbtHeat = new NbtHeat();
+        roundTrip(buf -> ItemStackCapabilitySync.writeToNetwork(food, heat, buf), buf -> ItemStackCapabilitySync.readFromNetwork(null, nbtHeat, buf));
+        assertEquals(0, nbtHeat.getTemperature());
+
+        // NBT data, read into a compact handler
+        nbtHeat.setTemperature(321f);
+        roundTrip(buf -> ItemStackCapabilitySync.writeToNetwork(null, nbtHeat, buf), buf -> ItemStackCapabilitySync.readFromNetwork(food, null, buf));
+        assertEquals(123456, food.getCreationDate());
+    }
+
+    @Test
+    public void testSyncRejectsUnknownFormat()
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        buffer.writeBoolean(true); // The previous format
+        buffer.writeNbt(new CompoundTag());
+
+        assertThrows(DecoderException.class, () -> ItemStackCapabilitySync.readFromNetwork(null, new HeatHandler(1, 0, 0), buffer));
+    }
+
+    /**
+     * Not a real test, just for comparing the size and speed of the compact format against NBT.
+     */
+    @Test
+    @Disabled
+    public void benchmarkCompactAgainstNbt()
+    {
+        final HeatHandler heat = new HeatHandler(1, 0, 0);
+        heat.setTemperature(1234.5f);
+
+        final FoodHandler food = new FoodHandler(FoodData.EMPTY);
+        food.getTraits().add(FoodTraits.SALTED);
+        food.getTraits().add(FoodTraits.WOOD_GRILLED);
+
+        final int stacks = 1_000_000;
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        for (int iteration = 0; iteration < 3; iteration++)
+        {
+            for (boolean compact : new boolean[] {false, true})
+            {
+                long bytes = 0;
+                final long start = System.nanoTime();
+                for (int i = 0; i < stacks; i++)
+                {
+                    buffer.clear();
+                    if (compact)
+                    {
+                        food.writeToNetwork(buffer);
+                        heat.writeToNetwork(buffer);
+                    }
+                    else
+                    {
+                        buffer.writeNbt(food.serializeNBT());
+                        buffer.writeNbt(heat.serializeNBT());
+                    }
+                    bytes += buffer.writerIndex();
+                }
+                final long elapsed = System.nanoTime() - start;
+                System.out.printf("%s: %.1f bytes / stack, %.1f ns / stack%n", compact ? "Compact" : "NBT", (double) bytes / stacks, (double) elapsed / stacks);
+            }
+        }
+    }
+
+    private FriendlyByteBuf roundTrip(Consumer<FriendlyByteBuf> writer, Consumer<FriendlyByteBuf> reader)
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        writer.accept(buffer);
+        reader.accept(buffer);
+        assertEquals(0, buffer.readableBytes(), "Buffer was not fully read");
+        return buffer;
+    }
+
+    /**
+     * A food handler which exposes the stored creation date, rather than one that depends on the calendar and config.
+     */
+    static class RawFoodHandler extends FoodHandler
+    {
+        RawFoodHandler()
+        {
+            super(FoodData.EMPTY);
+        }
+
+        @Override
+        public long getCreationDate()
+        {
+            return creationDate;
+        }
+    }
+
+    /**
+     * A heat implementation which is not a {@link HeatHandler}, so it is synced as NBT, like molds and vessels.
+     */
+    static class NbtHeat implements IHeat
+    {
+        float temperature;
+
+        @Override
+        public float getTemperature()
+        {
+            return temperature;
+        }
+
+        @Override
+        public void setTemperature(float temperature)
+        {
+            this.temperature = temperature;
+        }
+
+        @Override
+        public float getHeatCapacity()
+        {
+            return 1;
+        }
+
+        @Override
+        public CompoundTag serializeNBT()
+        {
+            final CompoundTag nbt = new CompoundTag();
+            nbt.putFloat("temperature", temperature);
+            return nbt;
+        }
+
+        @Override
+        public void deserializeNBT(CompoundTag nbt)
+        {
+            temperature = nbt.getFloat("temperature");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.recipes;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.fluids.FluidStack;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.recipes.AlloyRecipe;
+import net.dries007.tfc.common.recipes.BlastFurnaceRecipe;
+import net.dries007.tfc.common.recipes.ingredients.FluidIngredient;
+import net.dries007.tfc.common.recipes.ingredients.FluidStackIngredient;
+import net.dries007.tfc.common.recipes.inventory.AlloyInventory;
+import net.dries007.tfc.util.Alloy;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.Metal;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecipeIndexTests extends TestHelper
+{
+    @Test
+    public void testAlloyLookupIsIdenticalToTestingEachRecipe()
+    {
+        final Random random = new Random(1234);
+        final List<Metal> metals = createMetals(32);
+        final List<AlloyRecipe> recipes = createAlloyRecipes(random, metals, 256);
+        AlloyRecipe.CACHE.reload(recipes);
+
+        int found = 0;
+        for (AlloyInventory inventory : createAlloys(random, metals, recipes, 1024))
+        {
+            final AlloyRecipe expected = getUncached(recipes, inventory);
+            assertSame(expected, AlloyRecipe.get(null, inventory).orElse(null));
+            if (expected != null)
+            {
+                found++;
+            }
+        }
+        assertTrue(found > 0, "No alloys matched any recipe");
+        assertEquals(Optional.empty(), AlloyRecipe.get(null, new AlloyInventory(new Alloy())));
+    }
+
+    @Test
+    public void testBlastFurnaceLookupIsIdenticalToTestingEachRecipe()
+    {
+        final BlastFurnaceRecipe water = createBlastFurnaceRecipe("water", FluidIngredient.of(Fluids.WATER));
+        final BlastFurnaceRecipe either = createBlastFurnaceRecipe("either", FluidIngredient.of(Fluids.WATER, Fluids.LAVA));
+        final BlastFurnaceRecipe lava = createBlastFurnaceRecipe("lava", FluidIngredient.of(Fluids.LAVA));
+        BlastFurnaceRecipe.CACHE.reload(List.of(water, either, lava));
+
+        assertSame(water, BlastFurnaceRecipe.get(null, new FluidStack(Fluids.WATER, 1)));
+        assertSame(either, BlastFurnaceRecipe.get(null, new FluidStack(Fluids.LAVA, 1)));
+        assertNull(BlastFurnaceRecipe.get(null, FluidStack.EMPTY));
+    }
+
+    /**
+     * Not a real test, just for comparing indexed alloy lookup against testing each recipe, with a modpack-sized recipe list.
+     */
+    @Test
+    @Disabled
+    public void benchmarkAlloyLookup()
+    {
+        final Random random = new Random(1234);
+        final List<Metal> metals = createMetals(128);
+        final List<AlloyRecipe> recipes = createAlloyRecipes(random, metals, 2000);
+        final List<AlloyInventory> alloys = createAlloys(random, metals, recipes, 1000);
+        AlloyRecipe.CACHE.reload(recipes);
+
+        final int queries = 200_000;
+        for (int iteration = 0; iteration < 3; iteration++)
+        {
+            for (boolean cached : new boolean[] {false, true})
+            {
+                int found = 0;
+                final long start = System.nanoTime();
+                for (int i = 0; i < queries; i++)
+                {
+                    final AlloyInventory inventory = alloys.get(i % alloys.size());
+                    if ((cached ? AlloyRecipe.get(null, inventory).orElse(null) : getUncached(recipes, inventory)) != null)
+                    {
+                        found++;
+                    }
+                }
+                final long elapsed = System.nanoTime() - start;
+                System.out.printf("%s: %.1f ns / query (%d)%n", cached ? "Cached" : "Uncached", (double) elapsed / queries, found);
+            }
+        }
+    }
+
+    private List<Metal> createMetals(int count)
+    {
+        final List<Metal> metals = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            metals.add(new Metal(Helpers.identifier("metal_" + i)));
+        }
+        return metals;
+    }
+
+    /**
+     * Recipes of two or three metals, with ranges around an even split. Recipes may share their contents, in which case the first one should always be chosen.
+     */
+    private List<AlloyRecipe> createAlloyRecipes(Random random, List<Metal> metals, int count)
+    {
+        final List<AlloyRecipe> recipes = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            final int size = 2 + random.nextInt(2);
+            final Map<Metal, AlloyRecipe.Range> ranges = new LinkedHashMap<>();
+            while (ranges.size() < size)
+            {
+                ranges.put(metals.get(random.nextInt(metals.size())), new AlloyRecipe.Range(1d / size - 0.1, 1d / size + 0.1));
+            }
+            final Metal result = metals.get(random.nextInt(metals.size()));
+            recipes.add(new AlloyRecipe(Helpers.identifier("alloy_" + i), () -> ranges, () -> result));
+        }
+        return recipes;
+    }
+
+    /**
+     * A mix of alloys with the exact contents of a recipe, the contents plus some of the result, and random metals.
+     */
+    private List<AlloyInventory> createAlloys(Random random, List<Metal> metals, List<AlloyRecipe> recipes, int count)
+    {
+        final List<AlloyInventory> alloys = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            final Alloy alloy = new Alloy();
+            switch (i % 3)
+            {
+                case 0, 1 -> {
+                    final AlloyRecipe recipe = recipes.get(random.nextInt(recipes.size()));
+                    recipe.getRanges().keySet().forEach(metal -> alloy.add(metal, 100, false));
+                    if (i % 3 == 1)
+                    {
+                        alloy.add(recipe.getResult(), 100, false);
+                    }
+                }
+                default -> {
+                    alloy.add(metals.get(random.nextInt(metals.size())), 100, false);
+                    alloy.add(metals.get(random.nextInt(metals.size())), 100, false);
+                }
+            }
+            alloys.add(new AlloyInventory(alloy));
+        }
+        return alloys;
+    }
+
+    private BlastFurnaceRecipe createBlastFurnaceRecipe(String name, FluidIngredient ingredient)
+    {
+        return new BlastFurnaceRecipe(Helpers.identifier(name), new FluidStackIngredient(ingredient, 1), Ingredient.EMPTY, FluidStack.EMPTY);
+    }
+
+    /**
+     * The previous implementation, which tests each recipe in order.
+     */
+    @Nullable
+    private AlloyRecipe getUncached(List<AlloyRecipe> recipes, AlloyInventory inventory)
+    {
+        for (AlloyRecipe recipe : recipes)
+        {
+            if (recipe.matches(inventory, null))
+            {
+                return recipe;
+            }
+        }
+        return null;
+    }
+}
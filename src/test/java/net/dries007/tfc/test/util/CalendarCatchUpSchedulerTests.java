@@ -0,0 +1,208 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.calendar.CalendarCatchUpScheduler;
+import net.dries007.tfc.util.calendar.ICalendarTickable;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("deprecation")
+public class CalendarCatchUpSchedulerTests extends TestHelper
+{
+    static final int DURATION = 37;
+
+    @Test
+    public void testDeferredCatchUpIsIdenticalToImmediate()
+    {
+        final List<Barrel> immediate = run(null, 8);
+        final List<Barrel> deferred = run(new CalendarCatchUpScheduler(), 8);
+
+        for (int i = 0; i < immediate.size(); i++)
+        {
+            assertEquals(immediate.get(i).completions, deferred.get(i).completions, "Completions of barrel " + i);
+            assertEquals(immediate.get(i).recipeTick, deferred.get(i).recipeTick, "Recipe tick of barrel " + i);
+            assertEquals(immediate.get(i).getLastUpdateTick(), deferred.get(i).getLastUpdateTick(), "Last update tick of barrel " + i);
+        }
+    }
+
+    @Test
+    public void testPendingUpdatesAreDroppedOnUnloadAndDetectedAgain()
+    {
+        final CalendarCatchUpScheduler scheduler = new CalendarCatchUpScheduler();
+        final Barrel barrel = new Barrel(BlockPos.ZERO);
+        tick(barrel, 0, scheduler);
+        assertTrue(tick(barrel, 1, scheduler));
+
+        assertFalse(tick(barrel, 500, scheduler));
+        assertFalse(tick(barrel, 501, scheduler));
+        assertEquals(1, scheduler.getPending());
+        assertEquals(1, barrel.getLastUpdateTick(), "Last update tick should not advance while pending");
+
+        scheduler.removePending(new ChunkPos(BlockPos.ZERO));
+        assertEquals(0, scheduler.getPending());
+        assertEquals(0, scheduler.getPendingChunks());
+        assertEquals(1, barrel.getLastUpdateTick());
+
+        // Reloaded, so the skip is detected again
+        assertFalse(tick(barrel, 900, scheduler));
+        scheduler.tick(InactiveProfiler.INSTANCE, 901, 0);
+        assertTrue(tick(barrel, 901, scheduler));
+        assertEquals(900 / (DURATION + 1), barrel.completions);
+    }
+
+    @Test
+    public void testPausedCalendarIsNotASkip()
+    {
+        final CalendarCatchUpScheduler scheduler = new CalendarCatchUpScheduler();
+        final Barrel barrel = new Barrel(BlockPos.ZERO);
+        assertTrue(tick(barrel, 100, scheduler));
+
+        // No players are logged on, so the calendar does not advance, but the chunk still ticks
+        for (int i = 0; i < 10; i++)
+        {
+            scheduler.tick(InactiveProfiler.INSTANCE, 100, 0);
+            assertTrue(tick(barrel, 100, scheduler), "Regular tick skipped while the calendar is paused");
+        }
+        assertEquals(0, scheduler.getPending());
+        assertEquals(0, scheduler.getProcessed());
+        assertEquals(0, barrel.updates);
+        assertEquals(100, barrel.getLastUpdateTick());
+
+        assertTrue(tick(barrel, 101, scheduler));
+        assertEquals(0, barrel.updates);
+    }
+
+    @Test
+    public void testCalendarTickablesWhichCannotDeferCatchUpImmediately()
+    {
+        final CalendarCatchUpScheduler scheduler = new CalendarCatchUpScheduler();
+        final Barrel barrel = new Barrel(BlockPos.ZERO);
+        barrel.canDefer = false;
+        assertTrue(tick(barrel, 0, scheduler));
+        assertTrue(tick(barrel, 1, scheduler));
+
+        assertTrue(tick(barrel, 500, scheduler));
+        assertEquals(0, scheduler.getPending());
+        assertEquals(1, barrel.updates);
+        assertEquals(500, barrel.getLastUpdateTick());
+        assertEquals(499 / (DURATION + 1), barrel.completions);
+    }
+
+    /**
+     * Ticks a number of barrels in the same chunk through a calendar skip. With a scheduler and no time budget, only one barrel catches up each tick, so later barrels have to wait several ticks.
+     */
+    private List<Barrel> run(@Nullable CalendarCatchUpScheduler scheduler, int count)
+    {
+        final List<Barrel> barrels = new ArrayList<>();
+        for (int i = 0; i < count; i++)
+        {
+            barrels.add(new Barrel(new BlockPos(i, 0, 0)));
+        }
+        for (long tick = 0; tick < 1200; tick++)
+        {
+            if (tick >= 100 && tick < 1000)
+            {
+                continue; // Calendar skip
+            }
+            if (scheduler != null)
+            {
+                scheduler.tick(InactiveProfiler.INSTANCE, tick, 0);
+            }
+            for (Barrel barrel : barrels)
+            {
+                if (tick(barrel, tick, scheduler))
+                {
+                    barrel.tickRecipe(tick);
+                }
+            }
+        }
+        if (scheduler != null)
+        {
+            assertEquals(0, scheduler.getPending());
+            assertEquals(count, scheduler.getProcessed());
+            assertEquals(count, scheduler.getMaxPending());
+        }
+        return barrels;
+    }
+
+    private boolean tick(Barrel barrel, long tick, @Nullable CalendarCatchUpScheduler scheduler)
+    {
+        return ICalendarTickable.checkForCalendarUpdate(barrel, tick, entity -> scheduler, InactiveProfiler.INSTANCE);
+    }
+
+    /**
+     * Models a sealed barrel with a chained recipe, which completes and restarts every {@link #DURATION} ticks. This depends on not running regular ticks before catching up, as the regular tick restarts the recipe.
+     * Unlike a real barrel, this allows its updates to be deferred, as nothing else can interact with it.
+     */
+    static class Barrel extends BlockEntity implements ICalendarTickable
+    {
+        long lastUpdateTick = Integer.MIN_VALUE;
+        long recipeTick;
+        int completions;
+        int updates;
+        boolean canDefer = true;
+
+        Barrel(BlockPos pos)
+        {
+            super(BlockEntityType.BARREL, pos, Blocks.BARREL.defaultBlockState());
+        }
+
+        void tickRecipe(long tick)
+        {
+            assertEquals(tick, lastUpdateTick, "Regular tick before catching up");
+            if (tick - recipeTick > DURATION)
+            {
+                completions++;
+                recipeTick = tick;
+            }
+        }
+
+        @Override
+        public void onCalendarUpdate(long ticks)
+        {
+            assertTrue(ticks > 0, "Calendar update of " + ticks + " ticks");
+            updates++;
+            final long lastTick = lastUpdateTick + ticks; // The last tick simulated by this update
+            while (recipeTick + DURATION + 1 <= lastTick)
+            {
+                recipeTick += DURATION + 1;
+                completions++;
+            }
+        }
+
+        @Override
+        public boolean canDeferCalendarUpdate()
+        {
+            return canDefer;
+        }
+
+        @Override
+        public long getLastUpdateTick()
+        {
+            return lastUpdateTick;
+        }
+
+        @Override
+        public void setLastUpdateTick(long tick)
+        {
+            this.lastUpdateTick = tick;
+        }
+    }
+}
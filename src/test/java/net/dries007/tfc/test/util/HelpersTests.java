@@ -9,6 +9,8 @@ package net.dries007.tfc.test.util;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraftforge.items.IItemHandlerModifiable;
@@ -16,6 +18,7 @@ import net.minecraftforge.items.ItemStackHandler;
 
 import net.dries007.tfc.TestHelper;
 import net.dries007.tfc.util.Helpers;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import static net.dries007.tfc.TestAssertions.*;
@@ -37,4 +40,22 @@ public class HelpersTests extends TestHelper
             assertEquals(inventory.getStackInSlot(i), iterated.get(i));
         }
     }
+
+    @Test
+    public void testSignedVarInt()
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        for (int value : new int[] {0, 1, -1, 63, -64, 64, -65, 12345, -12345, Integer.MAX_VALUE, Integer.MIN_VALUE})
+        {
+            buffer.clear();
+            Helpers.writeSignedVarInt(buffer, value);
+            Assertions.assertEquals(value, Helpers.readSignedVarInt(buffer));
+            Assertions.assertEquals(0, buffer.readableBytes());
+        }
+
+        // Small values in either direction take a single byte
+        buffer.clear();
+        Helpers.writeSignedVarInt(buffer, -64);
+        Assertions.assertEquals(1, buffer.writerIndex());
+    }
 }
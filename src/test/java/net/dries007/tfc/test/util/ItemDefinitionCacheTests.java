@@ -0,0 +1,176 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.List;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.common.recipes.ingredients.NotRottenIngredient;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.ItemDefinition;
+import net.dries007.tfc.util.collections.ItemDefinitionCache;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ItemDefinitionCacheTests extends TestHelper
+{
+    static final Item[] ITEMS = {Items.STICK, Items.APPLE, Items.BREAD, Items.IRON_INGOT, Items.DIRT, Items.AIR};
+
+    @Test
+    public void testResolutionIsIdenticalToTestingEachDefinition()
+    {
+        final List<Definition> definitions = createDefinitions();
+        final ItemDefinitionCache<Definition> cache = new ItemDefinitionCache<>();
+        cache.reload(definitions);
+
+        for (Item item : ITEMS)
+        {
+            final ItemStack stack = new ItemStack(item);
+            assertSame(getUncached(cache, stack), cache.get(stack), "Item: " + item);
+
+            stack.getOrCreateTag().putBoolean("tagged", true);
+            assertSame(getUncached(cache, stack), cache.get(stack), "Item: " + item + " with tag");
+        }
+        assertSame(getUncached(cache, ItemStack.EMPTY), cache.get(ItemStack.EMPTY));
+    }
+
+    @Test
+    public void testResolutionPaths()
+    {
+        final List<Definition> definitions = createDefinitions();
+        final ItemDefinitionCache<Definition> cache = new ItemDefinitionCache<>();
+        cache.reload(definitions);
+
+        assertSame(definitions.get(0), cache.get(new ItemStack(Items.STICK)));
+        assertSame(definitions.get(2), cache.get(new ItemStack(Items.APPLE))); // Lacks a tag, so falls through to the next definition
+        assertNull(cache.get(new ItemStack(Items.DIRT)));
+
+        assertEquals(2, cache.getFastResolutions());
+        assertEquals(1, cache.getSlowResolutions());
+    }
+
+    @Test
+    public void testMatchesByItemOnly()
+    {
+        assertTrue(new Definition("stick", Ingredient.of(Items.STICK)).matchesByItemOnly());
+        assertFalse(new Definition("not_rotten_apple", NotRottenIngredient.of(Ingredient.of(Items.APPLE))).matchesByItemOnly());
+    }
+
+    @Test
+    public void testReloadReplacesResolution()
+    {
+        final ItemDefinitionCache<Definition> cache = new ItemDefinitionCache<>();
+        cache.reload(createDefinitions());
+
+        final Definition dirt = new Definition("dirt", Ingredient.of(Items.DIRT));
+        cache.reload(List.of(dirt));
+
+        assertSame(dirt, cache.get(new ItemStack(Items.DIRT)));
+        assertNull(cache.get(new ItemStack(Items.STICK)));
+    }
+
+    /**
+     * Not a real test, just for comparing resolution throughput against testing each definition.
+     */
+    @Test
+    @Disabled
+    public void benchmarkResolution()
+    {
+        final ItemDefinitionCache<Definition> cache = new ItemDefinitionCache<>();
+        cache.reload(createDefinitions());
+
+        final ItemStack[] stacks = new ItemStack[ITEMS.length];
+        for (int i = 0; i < ITEMS.length; i++)
+        {
+            stacks[i] = new ItemStack(ITEMS[i]);
+        }
+
+        final int queries = 10_000_000;
+        for (int iteration = 0; iteration < 3; iteration++)
+        {
+            for (boolean cached : new boolean[] {false, true})
+            {
+                int found = 0;
+                final long start = System.nanoTime();
+                for (int i = 0; i < queries; i++)
+                {
+                    final ItemStack stack = stacks[i % stacks.length];
+                    if ((cached ? cache.get(stack) : getUncached(cache, stack)) != null)
+                    {
+                        found++;
+                    }
+                }
+                final long elapsed = System.nanoTime() - start;
+                System.out.printf("%s: %.1f ns / query (%d)%n", cached ? "Cached" : "Uncached", (double) elapsed / queries, found);
+            }
+        }
+    }
+
+    private List<Definition> createDefinitions()
+    {
+        return List.of(
+            new Definition("stick", Ingredient.of(Items.STICK, Items.IRON_INGOT)),
+            new TaggedDefinition("tagged_apple", Ingredient.of(Items.APPLE)),
+            new Definition("food", Ingredient.of(Items.APPLE, Items.BREAD)),
+            new Definition("iron", Ingredient.of(Items.IRON_INGOT))
+        );
+    }
+
+    /**
+     * The previous implementation, which tests each candidate definition in order.
+     */
+    @Nullable
+    private Definition getUncached(ItemDefinitionCache<Definition> cache, ItemStack stack)
+    {
+        for (Definition def : cache.getAll(stack.getItem()))
+        {
+            if (def.matches(stack))
+            {
+                return def;
+            }
+        }
+        return null;
+    }
+
+    static class Definition extends ItemDefinition
+    {
+        Definition(String name, Ingredient ingredient)
+        {
+            super(Helpers.identifier(name), ingredient);
+        }
+    }
+
+    /**
+     * Only matches stacks with a tag, so must be tested against each stack.
+     */
+    static class TaggedDefinition extends Definition
+    {
+        TaggedDefinition(String name, Ingredient ingredient)
+        {
+            super(name, ingredient);
+        }
+
+        @Override
+        public boolean matches(ItemStack stack)
+        {
+            return stack.hasTag() && super.matches(stack);
+        }
+
+        @Override
+        public boolean matchesByItemOnly()
+        {
+            return false;
+        }
+    }
+}
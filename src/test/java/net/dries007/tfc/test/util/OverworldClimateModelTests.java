@@ -0,0 +1,123 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.Random;
+import net.minecraft.core.BlockPos;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.calendar.ICalendar;
+import net.dries007.tfc.util.calendar.Month;
+import net.dries007.tfc.util.climate.OverworldClimateModel;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.LerpFloatLayer;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverworldClimateModelTests extends TestHelper
+{
+    static final int DAYS_IN_MONTH = 8;
+
+    @Test
+    public void testTemperatureIsIdenticalToUncached()
+    {
+        final OverworldClimateModel model = new OverworldClimateModel(), uncached = new Uncached();
+        final ChunkData data = createChunkData();
+        final Random random = new Random(seed());
+
+        long calendarTicks = random.nextInt(1_000_000);
+        for (int i = 0; i < 10_000; i++)
+        {
+            // Mostly small steps forwards, with occasional jumps in either direction, as when the calendar is changed
+            calendarTicks += random.nextInt(50) == 0 ? random.nextInt(2_000_000) - 1_000_000 : random.nextInt(3);
+            calendarTicks = Math.max(0, calendarTicks);
+
+            final BlockPos pos = new BlockPos(random.nextInt(16), random.nextInt(384) - 64, random.nextInt(16));
+            assertEquals(uncached.getTemperature(null, pos, data, calendarTicks, DAYS_IN_MONTH), model.getTemperature(null, pos, data, calendarTicks, DAYS_IN_MONTH), "Temperature mismatch at " + pos + " at tick " + calendarTicks);
+        }
+
+        assertTrue(model.getTimeSampleHits() > 0);
+    }
+
+    @Test
+    public void testTemperatureChangesWithDaysInMonth()
+    {
+        final OverworldClimateModel model = new OverworldClimateModel(), uncached = new Uncached();
+        final ChunkData data = createChunkData();
+        final BlockPos pos = new BlockPos(8, 100, 8);
+        final long calendarTicks = 12 * ICalendar.TICKS_IN_DAY + 3000;
+
+        // Same tick, different month length, must not be served from the same entry
+        for (int daysInMonth = 1; daysInMonth < 32; daysInMonth++)
+        {
+            assertEquals(uncached.getTemperature(null, pos, data, calendarTicks, daysInMonth), model.getTemperature(null, pos, data, calendarTicks, daysInMonth));
+        }
+    }
+
+    /**
+     * Not a real test, just for comparing throughput of a 10k crop farm, where every crop queries temperature at the start and end of its growth step.
+     */
+    @Test
+    @Disabled
+    public void benchmarkCropFarmTemperature()
+    {
+        final ChunkData data = createChunkData();
+        final int crops = 10_000, ticks = 200;
+
+        for (OverworldClimateModel model : new OverworldClimateModel[] {new Uncached(), new OverworldClimateModel(), new Uncached(), new OverworldClimateModel()})
+        {
+            final Random random = new Random(1234L);
+            final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+            final long[] lastTick = new long[crops];
+            for (int i = 0; i < crops; i++)
+            {
+                lastTick[i] = random.nextInt(ICalendar.TICKS_IN_HOUR);
+            }
+
+            float sum = 0;
+            final long start = System.nanoTime();
+            for (long tick = ICalendar.TICKS_IN_HOUR; tick < ICalendar.TICKS_IN_HOUR + ticks; tick++)
+            {
+                for (int i = 0; i < crops; i++)
+                {
+                    cursor.set(i % 100, 65, i / 100);
+                    sum += model.getTemperature(null, cursor, data, lastTick[i], DAYS_IN_MONTH);
+                    sum += model.getTemperature(null, cursor, data, tick, DAYS_IN_MONTH);
+                }
+            }
+            final long elapsed = System.nanoTime() - start;
+            System.out.printf("%s: %.0f queries / s, Hit Rate: %.3f (%.1f)%n", model instanceof Uncached ? "Uncached" : "Cached", 2.0 * crops * ticks * 1e9 / elapsed, (double) model.getTimeSampleHits() / (model.getTimeSampleHits() + model.getTimeSampleMisses()), sum);
+        }
+    }
+
+    private ChunkData createChunkData()
+    {
+        final ChunkData data = new ChunkData(ChunkPos.ZERO, RockLayerSettings.EMPTY);
+        data.setAverageTemp(new LerpFloatLayer(4f, 8f, 12f, 16f));
+        return data;
+    }
+
+    /**
+     * The previous implementation, which computes the time dependent components on every query.
+     */
+    static class Uncached extends OverworldClimateModel
+    {
+        @Override
+        protected TimeSample sampleTime(long calendarTicks, int daysInMonth)
+        {
+            final Month currentMonth = ICalendar.getMonthOfYear(calendarTicks, daysInMonth);
+            final float delta = ICalendar.getFractionOfMonth(calendarTicks, daysInMonth);
+            final float monthFactor = Mth.lerp(delta, currentMonth.getTemperatureModifier(), currentMonth.next().getTemperatureModifier());
+            return new TimeSample(calendarTicks, daysInMonth, 0, monthFactor, calculateDailyTemperature(calendarTicks));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.util;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import com.google.gson.JsonObject;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.Helpers;
+import net.dries007.tfc.util.Support;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SupportTests extends TestHelper
+{
+    static final BlockState[] STATES = {Blocks.STONE.defaultBlockState(), Blocks.AIR.defaultBlockState(), Blocks.OAK_LOG.defaultBlockState(), Blocks.GLASS.defaultBlockState()};
+
+    @BeforeAll
+    public static void setupSupports()
+    {
+        final List<Support> supports = List.of(
+            createSupport("log", "minecraft:oak_log", 2, 2, 4),
+            createSupport("glass", "minecraft:glass", 1, 0, 1) // Asymmetric, to check up and down are not swapped
+        );
+        Support.CACHE.reload(supports);
+        Support.updateMaximumSupportRange(supports);
+    }
+
+    @Test
+    public void testUnsupportedPositionsAreIdenticalToPreviousImplementation()
+    {
+        final Random random = new Random(1234);
+        for (int i = 0; i < 50; i++)
+        {
+            final Grid grid = new Grid(random, 0.02f);
+            final BlockPos from = new BlockPos(random.nextInt(8) - 4, random.nextInt(8) - 4, random.nextInt(8) - 4);
+            final BlockPos to = from.offset(random.nextInt(9) - 4, random.nextInt(5) - 2, random.nextInt(9) - 4);
+
+            final LongList actual = Support.findUnsupportedPositions(grid, from, to);
+            final Set<Long> expected = new HashSet<>();
+            for (BlockPos pos : findUnsupportedPositionsUncached(grid, from, to))
+            {
+                expected.add(pos.asLong());
+            }
+
+            assertEquals(expected, new HashSet<>(actual), "Area " + from + " -> " + to);
+            assertEquals(actual.size(), new LongOpenHashSet(actual).size(), "Duplicate positions");
+        }
+    }
+
+    @Test
+    public void testEmptyAndFullySupportedAreas()
+    {
+        final Grid grid = new Grid(new Random(1234), 0);
+        final BlockPos from = new BlockPos(-4, -2, -4), to = new BlockPos(4, 2, 4);
+        assertEquals(9 * 5 * 9, Support.findUnsupportedPositions(grid, from, to).size());
+
+        grid.states.put(BlockPos.ZERO.asLong(), Blocks.OAK_LOG.defaultBlockState());
+        assertTrue(Support.findUnsupportedPositions(grid, from, to).isEmpty());
+    }
+
+    /**
+     * Not a real test, just for comparing the performance of finding unsupported positions in the largest collapse area (9x5x9) against the previous implementation.
+     */
+    @Test
+    @Disabled
+    public void benchmarkFindUnsupportedPositions()
+    {
+        final Grid grid = new Grid(new Random(1234), 0.005f);
+        final BlockPos from = new BlockPos(-4, -2, -4), to = new BlockPos(4, 2, 4);
+
+        final int queries = 20_000;
+        for (int iteration = 0; iteration < 3; iteration++)
+        {
+            for (boolean bitset : new boolean[] {false, true})
+            {
+                int found = 0;
+                final long start = System.nanoTime();
+                for (int i = 0; i < queries; i++)
+                {
+                    found += bitset ? Support.findUnsupportedPositions(grid, from, to).size() : findUnsupportedPositionsUncached(grid, from, to).size();
+                }
+                final long elapsed = System.nanoTime() - start;
+                System.out.printf("%s: %.1f us / query (%d)%n", bitset ? "Bitset" : "HashSet", (double) elapsed / (1000 * queries), found);
+            }
+        }
+    }
+
+    private static Support createSupport(String name, String block, int up, int down, int horizontal)
+    {
+        final JsonObject json = new JsonObject();
+        json.addProperty("ingredient", block);
+        json.addProperty("support_up", up);
+        json.addProperty("support_down", down);
+        json.addProperty("support_horizontal", horizontal);
+        return new Support(Helpers.identifier(name), json);
+    }
+
+    /**
+     * The previous implementation, using sets of positions.
+     */
+    private Set<BlockPos> findUnsupportedPositionsUncached(BlockGetter level, BlockPos from, BlockPos to)
+    {
+        final Set<BlockPos> listSupported = new HashSet<>();
+        final Set<BlockPos> listUnsupported = new HashSet<>();
+        final int minX = Math.min(from.getX(), to.getX()), maxX = Math.max(from.getX(), to.getX());
+        final int minY = Math.min(from.getY(), to.getY()), maxY = Math.max(from.getY(), to.getY());
+        final int minZ = Math.min(from.getZ(), to.getZ()), maxZ = Math.max(from.getZ(), to.getZ());
+        for (BlockPos searchingPoint : Support.getMaximumSupportedAreaAround(new BlockPos(minX, minY, minZ), new BlockPos(maxX, maxY, maxZ)))
+        {
+            if (!listSupported.contains(searchingPoint))
+            {
+                listUnsupported.add(searchingPoint.immutable());
+            }
+            final Support support = Support.get(level.getBlockState(searchingPoint));
+            if (support != null)
+            {
+                for (BlockPos supported : support.getSupportedArea(searchingPoint))
+                {
+                    listSupported.add(supported.immutable());
+                    listUnsupported.remove(supported);
+                }
+            }
+        }
+        listUnsupported.removeIf(content -> content.getX() < minX || content.getX() > maxX || content.getY() < minY || content.getY() > maxY || content.getZ() < minZ || content.getZ() > maxZ);
+        return listUnsupported;
+    }
+
+    /**
+     * A 32^3 area of random blocks, centered on the origin, with the given chance of each being a support.
+     */
+    static class Grid implements BlockGetter
+    {
+        final Long2ObjectMap<BlockState> states = new Long2ObjectOpenHashMap<>();
+
+        Grid(Random random, float supportChance)
+        {
+            states.defaultReturnValue(STATES[0]);
+            for (BlockPos pos : BlockPos.betweenClosed(-16, -16, -16, 15, 15, 15))
+            {
+                final BlockState state = random.nextFloat() < supportChance ? STATES[2 + random.nextInt(2)] : STATES[random.nextInt(2)];
+                states.put(pos.asLong(), state);
+            }
+        }
+
+        @Nullable
+        @Override
+        public BlockEntity getBlockEntity(BlockPos pos)
+        {
+            return null;
+        }
+
+        @Override
+        public BlockState getBlockState(BlockPos pos)
+        {
+            return states.get(pos.asLong());
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos)
+        {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public int getHeight()
+        {
+            return 384;
+        }
+
+        @Override
+        public int getMinBuildHeight()
+        {
+            return -64;
+        }
+    }
+}
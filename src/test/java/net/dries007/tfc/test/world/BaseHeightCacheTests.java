@@ -0,0 +1,103 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Random;
+
+import net.minecraft.core.SectionPos;
+
+import net.dries007.tfc.world.BaseHeightCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BaseHeightCacheTests
+{
+    @Test
+    public void testSingleColumnsAreIdenticalToSampling()
+    {
+        final CountingSampler sampler = new CountingSampler();
+        final BaseHeightCache cache = new BaseHeightCache(64, sampler::forChunk);
+        final Random random = new Random(1234);
+        for (int i = 0; i < 5000; i++)
+        {
+            // Repeat positions, so some come from the cache
+            final int x = random.nextInt(200) - 100, z = random.nextInt(200) - 100;
+            assertEquals(height(x, z), cache.get(x, z), "Height at " + x + ", " + z);
+        }
+    }
+
+    @Test
+    public void testRectanglesAreIdenticalToSingleColumns()
+    {
+        final CountingSampler sampler = new CountingSampler();
+        final BaseHeightCache cache = new BaseHeightCache(64, sampler::forChunk);
+        final Random random = new Random(1234);
+        for (int i = 0; i < 500; i++)
+        {
+            final int minX = random.nextInt(200) - 100, minZ = random.nextInt(200) - 100;
+            final int width = 1 + random.nextInt(40), depth = 1 + random.nextInt(40);
+            if (random.nextBoolean())
+            {
+                cache.get(minX + random.nextInt(width), minZ + random.nextInt(depth)); // Partially fill the cache
+            }
+
+            final int[] heights = cache.get(minX, minZ, width, depth);
+            assertEquals(width * depth, heights.length);
+            for (int dz = 0; dz < depth; dz++)
+            {
+                for (int dx = 0; dx < width; dx++)
+                {
+                    assertEquals(height(minX + dx, minZ + dz), heights[dx + width * dz], "Height at " + (minX + dx) + ", " + (minZ + dz) + " in " + width + "x" + depth + " at " + minX + ", " + minZ);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testColumnsAreSampledLazilyAndOnce()
+    {
+        final CountingSampler sampler = new CountingSampler();
+        final BaseHeightCache cache = new BaseHeightCache(1024, sampler::forChunk); // Large enough that none of the chunks used here collide
+
+        cache.get(5, -3);
+        assertEquals(1, sampler.columns, "A single probe should only sample a single column");
+        assertEquals(1, sampler.chunks);
+
+        cache.get(5, -3);
+        assertEquals(1, sampler.columns);
+
+        cache.get(0, -16, 16, 16);
+        assertEquals(256, sampler.columns);
+        assertEquals(2, sampler.chunks, "A rectangle should share one sampler per chunk");
+
+        cache.get(-8, -24, 32, 32);
+        assertEquals(32 * 32, sampler.columns);
+        assertEquals(2 + 8, sampler.chunks, "Only chunks with missing columns should create a sampler");
+    }
+
+    static int height(int x, int z)
+    {
+        return 64 + ((x * 31 + z * 17) ^ (x >> 3) ^ (z << 2)) % 40;
+    }
+
+    static class CountingSampler
+    {
+        int chunks, columns;
+
+        BaseHeightCache.ColumnSampler forChunk(int chunkX, int chunkZ)
+        {
+            chunks++;
+            return (x, z) -> {
+                assertEquals(chunkX, SectionPos.blockToSectionCoord(x), "Column outside of the sampler's chunk");
+                assertEquals(chunkZ, SectionPos.blockToSectionCoord(z), "Column outside of the sampler's chunk");
+                columns++;
+                return height(x, z);
+            };
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.util.IArtist;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.Area;
+import net.dries007.tfc.world.layer.framework.ConcurrentArea;
+import net.dries007.tfc.world.river.Watershed;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Biomes are filled asynchronously, so sampling the biome layers (including rivers, which share watershed caches) from many threads must produce identical results to sampling them from a single thread.
+ */
+public class BiomeLayerDeterminismTests extends TestHelper
+{
+    static final int CHUNKS = 24; // Width of the sampled region, in chunks
+    static final int QUARTS = CHUNKS * 4;
+    static final int THREADS = 8;
+
+    @Test
+    public void testBiomeLayerSingleAndMultiThreadedAreIdentical() throws InterruptedException
+    {
+        final long seed = seed();
+
+        final int[] expected = new int[QUARTS * QUARTS];
+        final Area singleThreaded = TFCLayers.createOverworldBiomeLayerWithRivers(seed, createWatersheds(seed), IArtist.nope(), IArtist.nope()).get();
+        for (int chunk = 0; chunk < CHUNKS * CHUNKS; chunk++)
+        {
+            fillChunk(expected, chunk, singleThreaded::get);
+        }
+
+        // Same region, but chunks are distributed across threads in an interleaved order, sharing both the area and the watershed context
+        final int[] actual = new int[QUARTS * QUARTS];
+        final ConcurrentArea<Integer> multiThreaded = new ConcurrentArea<>(TFCLayers.createOverworldBiomeLayerWithRivers(seed, createWatersheds(seed), IArtist.nope(), IArtist.nope()), i -> i);
+        final ExecutorService service = Executors.newFixedThreadPool(THREADS);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++)
+        {
+            final int thread = t;
+            futures.add(service.submit(() -> {
+                for (int chunk = thread; chunk < CHUNKS * CHUNKS; chunk += THREADS)
+                {
+                    fillChunk(actual, chunk, multiThreaded::get);
+                }
+            }));
+        }
+
+        try
+        {
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (ExecutionException e)
+        {
+            fail(e);
+        }
+        finally
+        {
+            service.shutdown();
+        }
+
+        for (int i = 0; i < expected.length; i++)
+        {
+            final int quartX = i % QUARTS, quartZ = i / QUARTS;
+            assertEquals(expected[i], actual[i], "Seed: " + seed + " biome mismatch at quart " + quartX + ", " + quartZ);
+        }
+    }
+
+    private Watershed.Context createWatersheds(long seed)
+    {
+        // Matches the parameters used by the TFC biome source
+        return new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
+    }
+
+    private void fillChunk(int[] palette, int chunk, QuartSampler sampler)
+    {
+        final int chunkX = chunk % CHUNKS, chunkZ = chunk / CHUNKS;
+        for (int dx = 0; dx < 4; dx++)
+        {
+            for (int dz = 0; dz < 4; dz++)
+            {
+                final int quartX = (chunkX << 2) + dx, quartZ = (chunkZ << 2) + dz;
+                palette[quartX + QUARTS * quartZ] = sampler.get(quartX, quartZ);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface QuartSampler
+    {
+        int get(int quartX, int quartZ);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.chunkdata.ChunkData;
+import net.dries007.tfc.world.chunkdata.ChunkDataCache;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkDataCacheTests extends TestHelper
+{
+    @Test
+    public void testGetUpdateAndRemove()
+    {
+        final ChunkDataCache cache = new ChunkDataCache("test", 1024);
+        final ChunkPos pos = new ChunkPos(3, -4);
+        final ChunkData data = ChunkData.createClient(pos);
+
+        assertNull(cache.get(pos));
+        cache.update(pos, data);
+        assertSame(data, cache.get(pos));
+        assertSame(data, cache.get(pos.toLong()));
+        assertNull(cache.get(new ChunkPos(-4, 3)));
+
+        assertSame(data, cache.remove(pos));
+        assertNull(cache.get(pos));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testSizeIsBounded()
+    {
+        final ChunkDataCache cache = new ChunkDataCache("test", 256);
+        for (int x = 0; x < 64; x++)
+        {
+            for (int z = 0; z < 64; z++)
+            {
+                cache.computeIfAbsent(new ChunkPos(x, z), ChunkData::createClient);
+            }
+        }
+
+        assertTrue(cache.size() <= cache.getMaxSize(), "Size: " + cache.size());
+        assertEquals(64 * 64 - cache.size(), cache.getEvictions());
+
+        // The most recently added entry is never evicted
+        assertNotNull(cache.get(new ChunkPos(63, 63)));
+    }
+
+    @Test
+    public void testConcurrentComputeIfAbsentReturnsOneInstance() throws InterruptedException, ExecutionException
+    {
+        final ChunkDataCache cache = new ChunkDataCache("test", Integer.MAX_VALUE);
+        final int threads = 8, size = 64;
+        final ExecutorService service = Executors.newFixedThreadPool(threads);
+        final List<Future<ChunkData[]>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++)
+        {
+            futures.add(service.submit(() -> {
+                final ChunkData[] seen = new ChunkData[size * size];
+                for (int x = 0; x < size; x++)
+                {
+                    for (int z = 0; z < size; z++)
+                    {
+                        seen[x + size * z] = cache.computeIfAbsent(new ChunkPos(x, z), ChunkData::createClient);
+                    }
+                }
+                return seen;
+            }));
+        }
+        service.shutdown();
+
+        final ChunkData[] expected = futures.get(0).get();
+        for (Future<ChunkData[]> future : futures)
+        {
+            final ChunkData[] actual = future.get();
+            for (int i = 0; i < expected.length; i++)
+            {
+                assertSame(expected[i], actual[i]);
+            }
+        }
+        assertEquals(size * size, cache.size());
+    }
+}
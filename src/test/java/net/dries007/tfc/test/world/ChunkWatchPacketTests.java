@@ -0,0 +1,226 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.network.ChunkWatchPacket;
+import net.dries007.tfc.world.chunkdata.*;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChunkWatchPacketTests extends TestHelper
+{
+    static final float LAYER_DELTA = 0.005f + 1e-4f; // Half of 1 / 100, with some floating point error
+    static final float FOREST_DELTA = 0.5f / 0xFFFF + 1e-6f;
+
+    @Test
+    public void testEncodeDecode()
+    {
+        final LongList unwatched = LongArrayList.of(
+            ChunkPos.asLong(0, 0),
+            ChunkPos.asLong(1, 0), // Adjacent
+            ChunkPos.asLong(-30000, 29999), // Far and negative
+            ChunkPos.asLong(-30000, 29998),
+            ChunkPos.asLong(1875000, -1875000) // World border
+        );
+        final List<ChunkWatchPacket.Entry> watched = List.of(
+            new ChunkWatchPacket.Entry(-1, -1, null, null, ForestType.NONE, 0, 0, PlateTectonicsClassification.OCEANIC),
+            new ChunkWatchPacket.Entry(0, -1, new LerpFloatLayer(123.456f, 123.4f, 500f, 0f), null, ForestType.OLD_GROWTH, 1, 0.5f, PlateTectonicsClassification.CONTINENT_CONTINENT_CONVERGING),
+            new ChunkWatchPacket.Entry(40000, -123, null, new LerpFloatLayer(-23.123f, -22.996f, 31.004f, 0.0049f), ForestType.SPARSE, 0.3333f, 0.9999f, PlateTectonicsClassification.CONTINENTAL_MID),
+            new ChunkWatchPacket.Entry(-5, 7, new LerpFloatLayer(0, 0, 0, 0), new LerpFloatLayer(-0.004f, 0.006f, -0.006f, 0.004f), ForestType.EDGE, 1.5f, -0.5f, PlateTectonicsClassification.OCEAN_OCEAN_DIVERGING) // Out of range forest values are clamped
+        );
+
+        final ChunkWatchPacket decoded = encodeDecode(new ChunkWatchPacket(unwatched, watched));
+
+        assertEquals(unwatched, decoded.getUnwatched());
+        assertEquals(watched.size(), decoded.getWatched().size());
+        for (int i = 0; i < watched.size(); i++)
+        {
+            assertEntryEquals(watched.get(i), decoded.getWatched().get(i));
+        }
+    }
+
+    @Test
+    public void testEncodeDecodeRandom()
+    {
+        final Random random = new Random(1234);
+        final LongList unwatched = new LongArrayList();
+        final List<ChunkWatchPacket.Entry> watched = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            unwatched.add(ChunkPos.asLong(random.nextInt(20000) - 10000, random.nextInt(20000) - 10000));
+            watched.add(new ChunkWatchPacket.Entry(
+                random.nextInt(20000) - 10000,
+                random.nextInt(20000) - 10000,
+                random.nextBoolean() ? null : layer(random, 500),
+                random.nextBoolean() ? null : layer(random, 40),
+                ForestType.valueOf(random.nextInt(ForestType.values().length)),
+                random.nextFloat(),
+                random.nextFloat(),
+                PlateTectonicsClassification.valueOf(random.nextInt(PlateTectonicsClassification.values().length))
+            ));
+        }
+
+        final ChunkWatchPacket decoded = encodeDecode(new ChunkWatchPacket(unwatched, watched));
+
+        assertEquals(unwatched, decoded.getUnwatched());
+        assertEquals(watched.size(), decoded.getWatched().size());
+        for (int i = 0; i < watched.size(); i++)
+        {
+            assertEntryEquals(watched.get(i), decoded.getWatched().get(i));
+        }
+    }
+
+    @Test
+    public void testAdjacentPositionsAreSmall()
+    {
+        final LongList unwatched = new LongArrayList();
+        for (int x = -10; x < 10; x++)
+        {
+            for (int z = -10; z < 10; z++)
+            {
+                unwatched.add(ChunkPos.asLong(1000 + x, -1000 + z));
+            }
+        }
+
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        new ChunkWatchPacket(unwatched, List.of()).encode(buffer);
+
+        // Both sizes, the first position in full, then a single byte for each coordinate of each difference from the previous position
+        assertEquals(2 + 1 + 4 + 2 * (unwatched.size() - 1), buffer.writerIndex());
+    }
+
+    @Test
+    public void testWatchThenUnwatchOnlySendsUnwatch()
+    {
+        final ChunkData data = ChunkData.createClient(new ChunkPos(3, -4));
+        final ChunkDataCache.SyncQueue.Batch batch = new ChunkDataCache.SyncQueue.Batch();
+
+        batch.watch(data);
+        batch.unwatch(data.getPos().toLong());
+
+        final List<ChunkWatchPacket> packets = batch.build();
+        assertEquals(1, packets.size());
+        assertEquals(LongArrayList.of(data.getPos().toLong()), packets.get(0).getUnwatched());
+        assertEquals(List.of(), packets.get(0).getWatched());
+    }
+
+    @Test
+    public void testUnwatchThenWatchOnlySendsWatch()
+    {
+        final ChunkData data = ChunkData.createClient(new ChunkPos(3, -4));
+        final ChunkDataCache.SyncQueue.Batch batch = new ChunkDataCache.SyncQueue.Batch();
+
+        batch.unwatch(data.getPos().toLong());
+        batch.watch(data);
+
+        final List<ChunkWatchPacket> packets = batch.build();
+        assertEquals(1, packets.size());
+        assertEquals(LongArrayList.of(), packets.get(0).getUnwatched());
+        assertEquals(List.of(data.getUpdateEntry()), packets.get(0).getWatched());
+    }
+
+    @Test
+    public void testRepeatedWatchAndUnwatchSendsLast()
+    {
+        final ChunkData first = ChunkData.createClient(new ChunkPos(0, 0));
+        final ChunkData second = ChunkData.createClient(new ChunkPos(1, 0));
+        final ChunkDataCache.SyncQueue.Batch batch = new ChunkDataCache.SyncQueue.Batch();
+
+        batch.watch(first);
+        batch.watch(second);
+        batch.unwatch(first.getPos().toLong());
+        batch.unwatch(second.getPos().toLong());
+        batch.watch(first);
+
+        final List<ChunkWatchPacket> packets = batch.build();
+        assertEquals(1, packets.size());
+        assertEquals(LongArrayList.of(second.getPos().toLong()), packets.get(0).getUnwatched());
+        assertEquals(List.of(first.getUpdateEntry()), packets.get(0).getWatched());
+    }
+
+    @Test
+    public void testLargeBatchesAreSplit()
+    {
+        final int max = ChunkDataCache.SyncQueue.MAX_CHUNKS_PER_PACKET;
+        final ChunkDataCache.SyncQueue.Batch batch = new ChunkDataCache.SyncQueue.Batch();
+        for (int i = 0; i < max + 10; i++)
+        {
+            batch.unwatch(ChunkPos.asLong(i, 0));
+            batch.watch(ChunkData.createClient(new ChunkPos(i, 1)));
+        }
+
+        final List<ChunkWatchPacket> packets = batch.build();
+        assertEquals(3, packets.size());
+
+        int unwatched = 0, watched = 0;
+        for (ChunkWatchPacket packet : packets)
+        {
+            assertTrue(packet.getUnwatched().size() + packet.getWatched().size() <= max, "Packet with more than " + max + " chunks");
+            unwatched += packet.getUnwatched().size();
+            watched += packet.getWatched().size();
+        }
+        assertEquals(max + 10, unwatched);
+        assertEquals(max + 10, watched);
+    }
+
+    private ChunkWatchPacket encodeDecode(ChunkWatchPacket packet)
+    {
+        final FriendlyByteBuf buffer = new FriendlyByteBuf(Unpooled.buffer());
+        packet.encode(buffer);
+        final ChunkWatchPacket decoded = new ChunkWatchPacket(buffer);
+        assertEquals(0, buffer.readableBytes());
+        return decoded;
+    }
+
+    private LerpFloatLayer layer(Random random, float range)
+    {
+        return new LerpFloatLayer(range * (random.nextFloat() * 2 - 1), range * (random.nextFloat() * 2 - 1), range * (random.nextFloat() * 2 - 1), range * (random.nextFloat() * 2 - 1));
+    }
+
+    private void assertEntryEquals(ChunkWatchPacket.Entry expected, ChunkWatchPacket.Entry actual)
+    {
+        assertEquals(expected.chunkX(), actual.chunkX());
+        assertEquals(expected.chunkZ(), actual.chunkZ());
+        assertLayerEquals(expected.rainfallLayer(), actual.rainfallLayer());
+        assertLayerEquals(expected.temperatureLayer(), actual.temperatureLayer());
+        assertEquals(expected.forestType(), actual.forestType());
+        assertEquals(Mth.clamp(expected.forestDensity(), 0, 1), actual.forestDensity(), FOREST_DELTA);
+        assertEquals(Mth.clamp(expected.forestWeirdness(), 0, 1), actual.forestWeirdness(), FOREST_DELTA);
+        assertEquals(expected.plateTectonicsInfo(), actual.plateTectonicsInfo());
+    }
+
+    private void assertLayerEquals(@Nullable LerpFloatLayer expected, @Nullable LerpFloatLayer actual)
+    {
+        if (expected == null)
+        {
+            assertNull(actual);
+            return;
+        }
+        assertNotNull(actual);
+        for (float tNS : new float[] {0, 1})
+        {
+            for (float tEW : new float[] {0, 1})
+            {
+                assertEquals(expected.getValue(tNS, tEW), actual.getValue(tNS, tEW), LAYER_DELTA, "Corner at " + tNS + ", " + tEW);
+            }
+        }
+    }
+}
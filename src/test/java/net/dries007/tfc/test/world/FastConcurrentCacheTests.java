@@ -0,0 +1,108 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.minecraft.world.level.ChunkPos;
+
+import net.dries007.tfc.world.FastConcurrentCache;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FastConcurrentCacheTests
+{
+    @Test
+    public void testGetAndSet()
+    {
+        final FastConcurrentCache<String> cache = new FastConcurrentCache<>(16);
+
+        assertNull(cache.getIfPresent(3, 4));
+        cache.set(3, 4, "value");
+        assertEquals("value", cache.getIfPresent(3, 4));
+        assertNull(cache.getIfPresent(4, 3));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testConcurrentReadsNeverObserveMismatchedValues() throws InterruptedException
+    {
+        // A small cache, so threads are constantly overwriting the same slots
+        final FastConcurrentCache<Long> cache = new FastConcurrentCache<>(64);
+        final List<Future<?>> futures = run(cache, 8, 200_000);
+        try
+        {
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (ExecutionException e)
+        {
+            fail(e);
+        }
+    }
+
+    /**
+     * Not a real test, just for comparing throughput under contention.
+     */
+    @Test
+    @Disabled
+    public void benchmarkThroughput() throws InterruptedException, ExecutionException
+    {
+        for (int threads : new int[] {1, 4, 16})
+        {
+            final FastConcurrentCache<Long> cache = new FastConcurrentCache<>(256);
+            final int operations = 2_000_000;
+            final long start = System.nanoTime();
+            for (Future<?> future : run(cache, threads, operations))
+            {
+                future.get();
+            }
+            final long elapsed = System.nanoTime() - start;
+            System.out.printf("Threads: %d, Operations / ms: %.1f, Hit Rate: %.3f%n", threads, (double) threads * operations * 1_000_000 / elapsed, (double) cache.getHits() / (cache.getHits() + cache.getMisses()));
+        }
+    }
+
+    private List<Future<?>> run(FastConcurrentCache<Long> cache, int threads, int operations)
+    {
+        final ExecutorService service = Executors.newFixedThreadPool(threads);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++)
+        {
+            final long seed = t;
+            futures.add(service.submit(() -> {
+                final Random random = new Random(seed);
+                for (int i = 0; i < operations; i++)
+                {
+                    final int x = random.nextInt(32) - 16, z = random.nextInt(32) - 16;
+                    final Long value = cache.getIfPresent(x, z);
+                    if (value == null)
+                    {
+                        cache.set(x, z, ChunkPos.asLong(x, z));
+                    }
+                    else if (value != ChunkPos.asLong(x, z))
+                    {
+                        throw new IllegalStateException("Read value " + value + " for key " + x + ", " + z);
+                    }
+                }
+            }));
+        }
+        service.shutdown();
+        return futures;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.river.Flow;
+import net.dries007.tfc.world.river.MidpointFractal;
+import net.dries007.tfc.world.river.RiverPartition;
+import net.dries007.tfc.world.river.Watershed;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RiverPartitionTests extends TestHelper
+{
+    static final int SIZE = 768; // In quarts
+
+    @Test
+    public void testIndexedIntersectionIsIdenticalToLinear()
+    {
+        final long seed = seed();
+        final float scale = 1f / (1 << 7);
+        final Watershed.Context context = new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
+
+        for (int x = -SIZE; x < SIZE; x++)
+        {
+            for (int z = -SIZE; z < SIZE; z++)
+            {
+                final RiverPartition partition = context.getPartition(x, z);
+                final float x0 = x * scale, z0 = z * scale;
+
+                Flow expected = Flow.NONE;
+                boolean expectedIntersect = false;
+                for (MidpointFractal fractal : partition.getFractals())
+                {
+                    if (fractal.maybeIntersect(x0, z0, Watershed.RIVER_WIDTH) && fractal.intersect(x0, z0, Watershed.RIVER_WIDTH))
+                    {
+                        expected = fractal.intersectWithFlow(x0, z0, Watershed.RIVER_WIDTH);
+                        expectedIntersect = true;
+                        break;
+                    }
+                }
+
+                assertEquals(expected, partition.intersectWithFlow(x0, z0, Watershed.RIVER_WIDTH), "Seed: " + seed + " at " + x + ", " + z);
+                assertEquals(expectedIntersect, partition.intersect(x0, z0, Watershed.RIVER_WIDTH), "Seed: " + seed + " at " + x + ", " + z);
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.chunkdata.RockData;
+import net.dries007.tfc.world.settings.RockLayerSettings;
+import net.dries007.tfc.world.settings.RockSettings;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RockDataTests extends TestHelper
+{
+    static final int SIZE = 16 * 16;
+
+    @Test
+    public void testWriteAndReadWithSingleRock()
+    {
+        final RockLayerSettings settings = createSettings();
+        final RockSettings rock = settings.getRocks().get(2);
+
+        assertRoundTrip(settings, fill(rock), fill(rock), fill(rock));
+    }
+
+    @Test
+    public void testWriteAndReadWithManyRocks()
+    {
+        final RockLayerSettings settings = createSettings();
+        final Random random = new Random(seed());
+
+        assertRoundTrip(settings, fill(settings, random, 2), fill(settings, random, 3), fill(settings, random, settings.getRocks().size()));
+    }
+
+    @Test
+    public void testReadLegacyFormat()
+    {
+        final RockLayerSettings settings = createSettings();
+        final Random random = new Random(seed());
+        final RockSettings[] bottom = fill(settings, random, 5), middle = fill(settings, random, 5), top = fill(settings, random, 5);
+        final int[] height = heights(random);
+
+        final CompoundTag nbt = new CompoundTag();
+        nbt.putIntArray("bottomLayer", Arrays.stream(bottom).mapToInt(rock -> settings.getRocks().indexOf(rock)).toArray());
+        nbt.putIntArray("middleLayer", Arrays.stream(middle).mapToInt(rock -> settings.getRocks().indexOf(rock)).toArray());
+        nbt.putIntArray("topLayer", Arrays.stream(top).mapToInt(rock -> settings.getRocks().indexOf(rock)).toArray());
+        nbt.putIntArray("height", height);
+        nbt.putIntArray("surfaceHeight", new int[SIZE]);
+
+        final RockData expected = new RockData(bottom, middle, top, height);
+        expected.setSurfaceHeight(new int[SIZE]);
+
+        assertRocksEqual(expected, new RockData(nbt, settings));
+    }
+
+    @Test
+    public void testGetRockId()
+    {
+        final RockLayerSettings settings = createSettings();
+        for (int i = 0; i < settings.getRocks().size(); i++)
+        {
+            assertEquals(i, settings.getRockId(settings.getRocks().get(i)));
+        }
+    }
+
+    @Test
+    public void testWriteWithRockNotInSettings()
+    {
+        final RockLayerSettings settings = createSettings();
+        final RockData data = new RockData(fill(createRock(Blocks.BASALT)), fill(settings.getRocks().get(0)), fill(settings.getRocks().get(0)), new int[SIZE]);
+
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> data.write(settings));
+        assertTrue(e.getMessage().contains("minecraft:basalt"), e.getMessage());
+    }
+
+    private void assertRoundTrip(RockLayerSettings settings, RockSettings[] bottom, RockSettings[] middle, RockSettings[] top)
+    {
+        final RockData expected = new RockData(bottom, middle, top, heights(new Random(seed())));
+        expected.setSurfaceHeight(new int[SIZE]);
+
+        assertRocksEqual(expected, new RockData(expected.write(settings), settings));
+    }
+
+    private void assertRocksEqual(RockData expected, RockData actual)
+    {
+        for (int x = 0; x < 16; x++)
+        {
+            for (int z = 0; z < 16; z++)
+            {
+                for (int y = -64; y < 256; y += 4)
+                {
+                    assertSame(expected.getRock(x, y, z), actual.getRock(x, y, z), "Rock mismatch at " + x + ", " + y + ", " + z);
+                }
+            }
+        }
+    }
+
+    private RockSettings[] fill(RockSettings rock)
+    {
+        final RockSettings[] layer = new RockSettings[SIZE];
+        Arrays.fill(layer, rock);
+        return layer;
+    }
+
+    private RockSettings[] fill(RockLayerSettings settings, Random random, int count)
+    {
+        final RockSettings[] layer = new RockSettings[SIZE];
+        Arrays.setAll(layer, i -> settings.getRocks().get(random.nextInt(count)));
+        return layer;
+    }
+
+    private int[] heights(Random random)
+    {
+        final int[] height = new int[SIZE];
+        Arrays.setAll(height, i -> random.nextInt(21) - 10);
+        return height;
+    }
+
+    private RockLayerSettings createSettings()
+    {
+        final Map<ResourceLocation, RockSettings> rocks = Stream.of(Blocks.STONE, Blocks.GRANITE, Blocks.DIORITE, Blocks.ANDESITE, Blocks.DEEPSLATE, Blocks.TUFF, Blocks.CALCITE)
+            .map(this::createRock)
+            .collect(Collectors.toMap(RockSettings::id, Function.identity()));
+        return new RockLayerSettings(rocks, 7);
+    }
+
+    private RockSettings createRock(Block raw)
+    {
+        return new RockSettings(raw.getRegistryName(), raw, raw, Blocks.GRAVEL, Blocks.COBBLESTONE, Blocks.SAND, Blocks.SANDSTONE, Optional.empty(), Optional.empty(), true, true, true);
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import net.minecraft.util.Mth;
+
+import net.dries007.tfc.world.noise.ChunkNoiseSamplingSettings;
+import net.dries007.tfc.world.noise.TrilinearInterpolator;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Interpolated values must match direct trilinear interpolation of the corners of each cell.
+ * When filling a chunk in parallel, each cell x is interpolated independently, rather than by sweeping slices across the chunk. Both must produce identical noise.
+ */
+public class TrilinearInterpolatorTests
+{
+    static final ChunkNoiseSamplingSettings SETTINGS = new ChunkNoiseSamplingSettings(-64, 4, 48, 4, 8, -12, -8, 20);
+    static final TrilinearInterpolator.Source SOURCE = (x, y, z) -> Math.sin(x * 0.13 + y * 0.07) * Math.cos(z * 0.11 - y * 0.05);
+
+    @Test
+    public void testIndependentCellXIsIdenticalToSerialSweep()
+    {
+        final double[] expected = new double[size()];
+        final TrilinearInterpolator serial = new TrilinearInterpolator(SETTINGS, SOURCE);
+        serial.initializeForFirstCellX();
+        for (int cellX = 0; cellX < SETTINGS.cellCountXZ(); cellX++)
+        {
+            serial.advanceCellX(cellX);
+            sampleCellX(serial, cellX, expected);
+            serial.swapSlices();
+        }
+
+        // Each cell x on a separate task, in parallel, with its own interpolator
+        final double[] actual = new double[size()];
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int cellX = 0; cellX < SETTINGS.cellCountXZ(); cellX++)
+        {
+            final int workerCellX = cellX;
+            tasks.add(ForkJoinPool.commonPool().submit(() -> {
+                final TrilinearInterpolator worker = new TrilinearInterpolator(SETTINGS, SOURCE);
+                worker.initializeForCellX(workerCellX);
+                sampleCellX(worker, workerCellX, actual);
+            }));
+        }
+        tasks.forEach(ForkJoinTask::join);
+
+        assertArrayEquals(expected, actual);
+    }
+
+    @Test
+    public void testCellIsIdenticalToDirectInterpolation()
+    {
+        final int cellWidth = SETTINGS.cellWidth(), cellHeight = SETTINGS.cellHeight();
+        final TrilinearInterpolator interpolator = new TrilinearInterpolator(SETTINGS, SOURCE);
+        final double[] valuesY = new double[cellHeight];
+        for (int cellX = 0; cellX < SETTINGS.cellCountXZ(); cellX++)
+        {
+            interpolator.initializeForCellX(cellX);
+            for (int cellZ = 0; cellZ < SETTINGS.cellCountXZ(); cellZ++)
+            {
+                for (int cellY = 0; cellY < SETTINGS.cellCountY(); cellY++)
+                {
+                    // Corners of the cell, in absolute block coordinates
+                    final int x0 = (SETTINGS.firstCellX() + cellX) * cellWidth, x1 = x0 + cellWidth;
+                    final int y0 = (SETTINGS.firstCellY() + cellY) * cellHeight, y1 = y0 + cellHeight;
+                    final int z0 = (SETTINGS.firstCellZ() + cellZ) * cellWidth, z1 = z0 + cellWidth;
+
+                    interpolator.selectCellYZ(cellY, cellZ);
+                    for (int localCellX = 0; localCellX < cellWidth; localCellX++)
+                    {
+                        for (int localCellZ = 0; localCellZ < cellWidth; localCellZ++)
+                        {
+                            final double dx = (double) localCellX / cellWidth, dz = (double) localCellZ / cellWidth;
+                            interpolator.updateForXZ(dx, dz);
+                            interpolator.sampleCellY(valuesY);
+                            for (int localCellY = 0; localCellY < cellHeight; localCellY++)
+                            {
+                                final double expected = Mth.lerp3(dx, (double) localCellY / cellHeight, dz,
+                                    SOURCE.sample(x0, y0, z0), SOURCE.sample(x1, y0, z0), SOURCE.sample(x0, y1, z0), SOURCE.sample(x1, y1, z0),
+                                    SOURCE.sample(x0, y0, z1), SOURCE.sample(x1, y0, z1), SOURCE.sample(x0, y1, z1), SOURCE.sample(x1, y1, z1));
+                                assertEquals(expected, valuesY[localCellY], 1e-12, "Value at cell " + cellX + ", " + cellY + ", " + cellZ + ", local " + localCellX + ", " + localCellY + ", " + localCellZ);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Not a real test, just for comparing the speed of sampling a whole cell y span at once, against the previous implementation, which interpolated each y position individually.
+     */
+    @Test
+    @Disabled
+    public void benchmarkSampleCellYAgainstSingleY()
+    {
+        final int cellWidth = SETTINGS.cellWidth(), cellHeight = SETTINGS.cellHeight(), cellCountY = SETTINGS.cellCountY();
+        final TrilinearInterpolator interpolator = new TrilinearInterpolator(SETTINGS, SOURCE);
+        final SingleYInterpolator previous = new SingleYInterpolator();
+        final double[] values = new double[size()];
+        final double[] valuesY = new double[cellHeight];
+        final int chunks = 2_000;
+
+        interpolator.initializeForCellX(0);
+        for (int iteration = 0; iteration < 5; iteration++)
+        {
+            for (boolean cellY : new boolean[] {false, true})
+            {
+                double total = 0;
+                final long start = System.nanoTime();
+                for (int chunk = 0; chunk < chunks; chunk++)
+                {
+                    for (int xz = 0; xz < 16 * 16; xz++)
+                    {
+                        final double x = (double) (xz % cellWidth) / cellWidth, z = (double) ((xz >> 4) % cellWidth) / cellWidth;
+                        for (int y = 0; y < cellCountY; y++)
+                        {
+                            final int index = cellCountY * cellHeight * xz + y * cellHeight;
+                            if (cellY)
+                            {
+                                interpolator.selectCellYZ(y, 0);
+                                interpolator.updateForXZ(x, z);
+                                interpolator.sampleCellY(valuesY);
+                                System.arraycopy(valuesY, 0, values, index, cellHeight);
+                            }
+                            else
+                            {
+                                previous.selectCellY(y);
+                                previous.updateForXZ(x, z);
+                                for (int localCellY = 0; localCellY < cellHeight; localCellY++)
+                                {
+                                    previous.updateForY((double) localCellY / cellHeight);
+                                    values[index + localCellY] = previous.sample();
+                                }
+                            }
+                        }
+                    }
+                    total += values[chunk % values.length];
+                }
+                final long elapsed = System.nanoTime() - start;
+                System.out.printf("%s: %.1f chunks / s (%.1f)%n", cellY ? "Cell Y" : "Single Y", chunks / (elapsed / 1e9), total);
+            }
+        }
+    }
+
+    private void sampleCellX(TrilinearInterpolator interpolator, int cellX, double[] values)
+    {
+        final double[] valuesY = new double[SETTINGS.cellHeight()];
+        for (int cellZ = 0; cellZ < SETTINGS.cellCountXZ(); cellZ++)
+        {
+            for (int localCellX = 0; localCellX < SETTINGS.cellWidth(); localCellX++)
+            {
+                for (int localCellZ = 0; localCellZ < SETTINGS.cellWidth(); localCellZ++)
+                {
+                    for (int cellY = 0; cellY < SETTINGS.cellCountY(); cellY++)
+                    {
+                        interpolator.selectCellYZ(cellY, cellZ);
+                        interpolator.updateForXZ((double) localCellX / SETTINGS.cellWidth(), (double) localCellZ / SETTINGS.cellWidth());
+                        interpolator.sampleCellY(valuesY);
+
+                        final int x = cellX * SETTINGS.cellWidth() + localCellX;
+                        final int z = cellZ * SETTINGS.cellWidth() + localCellZ;
+                        System.arraycopy(valuesY, 0, values, SETTINGS.cellCountY() * SETTINGS.cellHeight() * (x + 16 * z) + cellY * SETTINGS.cellHeight(), SETTINGS.cellHeight());
+                    }
+                }
+            }
+        }
+    }
+
+    private int size()
+    {
+        return 16 * 16 * SETTINGS.cellCountY() * SETTINGS.cellHeight();
+    }
+
+    /**
+     * The previous implementation, which interpolated each y position individually, over the first column of cells.
+     */
+    static class SingleYInterpolator
+    {
+        final double[][] corners = new double[SETTINGS.cellCountY()][];
+        double noise000, noise001, noise100, noise101, noise010, noise011, noise110, noise111;
+        double valueX0Z, valueX1Z, valueXYZ;
+
+        SingleYInterpolator()
+        {
+            final int x0 = SETTINGS.firstCellX() * SETTINGS.cellWidth(), x1 = x0 + SETTINGS.cellWidth();
+            final int z0 = SETTINGS.firstCellZ() * SETTINGS.cellWidth(), z1 = z0 + SETTINGS.cellWidth();
+            for (int cellY = 0; cellY < SETTINGS.cellCountY(); cellY++)
+            {
+                final int y0 = (SETTINGS.firstCellY() + cellY) * SETTINGS.cellHeight(), y1 = y0 + SETTINGS.cellHeight();
+                corners[cellY] = new double[] {
+                    SOURCE.sample(x0, y0, z0), SOURCE.sample(x0, y0, z1), SOURCE.sample(x1, y0, z0), SOURCE.sample(x1, y0, z1),
+                    SOURCE.sample(x0, y1, z0), SOURCE.sample(x0, y1, z1), SOURCE.sample(x1, y1, z0), SOURCE.sample(x1, y1, z1)
+                };
+            }
+        }
+
+        void selectCellY(int cellY)
+        {
+            final double[] cell = corners[cellY];
+            noise000 = cell[0];
+            noise001 = cell[1];
+            noise100 = cell[2];
+            noise101 = cell[3];
+            noise010 = cell[4];
+            noise011 = cell[5];
+            noise110 = cell[6];
+            noise111 = cell[7];
+        }
+
+        void updateForXZ(double x, double z)
+        {
+            final double valueX00 = Mth.lerp(x, noise000, noise100);
+            final double valueX10 = Mth.lerp(x, noise010, noise110);
+            final double valueX01 = Mth.lerp(x, noise001, noise101);
+            final double valueX11 = Mth.lerp(x, noise011, noise111);
+
+            valueX0Z = Mth.lerp(z, valueX00, valueX01);
+            valueX1Z = Mth.lerp(z, valueX10, valueX11);
+        }
+
+        void updateForY(double y)
+        {
+            valueXYZ = Mth.lerp(y, valueX0Z, valueX1Z);
+        }
+
+        double sample()
+        {
+            return valueXYZ;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed under the EUPL, Version 1.2.
+ * You may obtain a copy of the Licence at:
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ */
+
+package net.dries007.tfc.test.world;
+
+import net.dries007.tfc.TestHelper;
+import net.dries007.tfc.world.layer.Plate;
+import net.dries007.tfc.world.layer.TFCLayers;
+import net.dries007.tfc.world.layer.framework.TypedArea;
+import net.dries007.tfc.world.layer.framework.TypedAreaFactory;
+import net.dries007.tfc.world.river.Watershed;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WatershedContextTests extends TestHelper
+{
+    static final int CELLS = 32;
+
+    @Test
+    public void testWatershedsAreBuiltOncePerPlate()
+    {
+        final long seed = seed();
+        final TypedAreaFactory<Plate> plates = TFCLayers.createEarlyPlateLayers(seed);
+        final TypedArea<Plate> area = plates.get();
+        final Watershed.Context context = new Watershed.Context(plates, seed, 0.5f, 0.8f, 14, 0.2f);
+
+        for (int x = -CELLS; x < CELLS; x++)
+        {
+            for (int z = -CELLS; z < CELLS; z++)
+            {
+                // Must be identical to building a watershed directly from this cell
+                final Watershed expected = Watershed.create(area, x, z, seed, 0.5f, 0.8f, 14, 0.2f);
+                final Watershed actual = context.create(x, z);
+
+                assertEquals(expected.getPlate(), actual.getPlate());
+                assertTrue(actual.contains(x, z));
+                if (expected instanceof Watershed.Rivers rivers)
+                {
+                    final Watershed.Rivers actualRivers = assertInstanceOf(Watershed.Rivers.class, actual, "Seed: " + seed + " at " + x + ", " + z);
+                    assertEquals(rivers.interior, actualRivers.interior);
+                    assertEquals(rivers.getSources(), actualRivers.getSources());
+                    assertEquals(rivers.getRivers().size(), actualRivers.getRivers().size());
+                }
+                else
+                {
+                    assertFalse(actual instanceof Watershed.Rivers, "Seed: " + seed + " at " + x + ", " + z);
+                }
+            }
+        }
+
+        // Plates span many cells, so most should be found already built
+        assertTrue(context.getWatershedBuilds() < context.getWatershedPlateHits(), "Builds: " + context.getWatershedBuilds() + ", Plate Hits: " + context.getWatershedPlateHits());
+    }
+}
@@ -25,13 +25,17 @@ import net.dries007.tfc.world.layer.Plate;
 import net.dries007.tfc.world.layer.TFCLayers;
 import net.dries007.tfc.world.layer.framework.AreaFactory;
 import net.dries007.tfc.world.layer.framework.TypedAreaFactory;
+import net.dries007.tfc.world.river.Flow;
 import net.dries007.tfc.world.river.MidpointFractal;
 import net.dries007.tfc.world.river.RiverFractal;
 import net.dries007.tfc.world.river.RiverHelpers;
+import net.dries007.tfc.world.river.RiverPartition;
 import net.dries007.tfc.world.river.Watershed;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 @Disabled
 public class RiverVisualizations extends TestHelper
 {
@@ -233,4 +237,67 @@ public class RiverVisualizations extends TestHelper
 
         TFCLayersVisualizations.AREA.draw("rivers_on_biomes", riverArea);
     }
+
+    @Test
+    public void benchmarkRiverFlowLookups()
+    {
+        final long seed = seed();
+        final int size = 2048; // In quarts
+        final float scale = 1f / (1 << 7);
+        final Watershed.Context context = new Watershed.Context(TFCLayers.createEarlyPlateLayers(seed), seed, 0.5f, 0.8f, 14, 0.2f);
+
+        // Build all partitions first, so only lookups are measured
+        final Flow[] expected = new Flow[size * size];
+        for (int x = 0; x < size; x++)
+        {
+            for (int z = 0; z < size; z++)
+            {
+                expected[x + size * z] = linearRiverFlow(context.getPartition(x, z), x * scale, z * scale);
+            }
+        }
+
+        for (int iteration = 0; iteration < 3; iteration++)
+        {
+            long start = System.nanoTime();
+            for (int x = 0; x < size; x++)
+            {
+                for (int z = 0; z < size; z++)
+                {
+                    assertEquals(expected[x + size * z], linearRiverFlow(context.getPartition(x, z), x * scale, z * scale));
+                }
+            }
+            final long linear = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int x = 0; x < size; x++)
+            {
+                for (int z = 0; z < size; z++)
+                {
+                    assertEquals(expected[x + size * z], context.getPartition(x, z).intersectWithFlow(x * scale, z * scale, Watershed.RIVER_WIDTH));
+                }
+            }
+            final long indexed = System.nanoTime() - start;
+
+            System.out.printf("Linear: %.0f lookups / s, Indexed: %.0f lookups / s%n", size * size * 1e9 / linear, size * size * 1e9 / indexed);
+        }
+    }
+
+    /**
+     * The previous implementation of river flow, which tests every fractal in the partition.
+     */
+    private Flow linearRiverFlow(RiverPartition partition, float x0, float z0)
+    {
+        for (MidpointFractal fractal : partition.getFractals())
+        {
+            if (fractal.maybeIntersect(x0, z0, Watershed.RIVER_WIDTH))
+            {
+                final Flow flow = fractal.intersectWithFlow(x0, z0, Watershed.RIVER_WIDTH);
+                if (flow != Flow.NONE)
+                {
+                    return flow;
+                }
+            }
+        }
+        return Flow.NONE;
+    }
 }